@@ -0,0 +1,124 @@
+package com.scratchgame.benchmarks;
+
+import com.scratchgame.compiled.CompiledGame;
+import com.scratchgame.model.AreaRule;
+import com.scratchgame.model.Configuration;
+import com.scratchgame.model.WinningCombination;
+import com.scratchgame.service.Board;
+import com.scratchgame.service.EvaluationContext;
+import com.scratchgame.service.GameEvaluator;
+import com.scratchgame.service.MatrixGenerator;
+import com.scratchgame.random.RandomSource;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+// Evaluation of every row, column, diagonal and window of three cells, listed as covered_areas or generated
+// from area rules. Both match the same areas, the rules without testing them one by one.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AreaRuleBenchmark {
+
+    private static final int BOARDS = 1024;
+    private static final int WINDOW = 3;
+
+    @Param({"5", "7", "10"})
+    private int size;
+
+    @Param({"listed", "rules"})
+    private String areas;
+
+    private GameEvaluator evaluator;
+    private EvaluationContext context;
+    private Board[] boards;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Configuration config = BenchmarkConfigurations.create(size, 6, 5);
+        Map<String, WinningCombination> combinations = new LinkedHashMap<>();
+        combinations.put("lines", combination("lines", 2.0));
+        combinations.put("windows", combination("windows", 1.5));
+        if (areas.equals("rules")) {
+            combinations.get("lines").setArea_rules(List.of(rule("rows", null), rule("columns", null), rule("diagonals", null)));
+            combinations.get("windows").setArea_rules(List.of(rule("windows", WINDOW)));
+        } else {
+            combinations.get("lines").setCovered_areas(lines(size));
+            combinations.get("windows").setCovered_areas(windows(size));
+        }
+        config.setWin_combinations(combinations);
+
+        CompiledGame game = CompiledGame.compile(config);
+        evaluator = new GameEvaluator(game);
+        context = evaluator.newContext();
+        MatrixGenerator generator = new MatrixGenerator(game, RandomSource.of(new SplittableRandom(42)));
+        boards = new Board[BOARDS];
+        for (int i = 0; i < BOARDS; i++) {
+            boards[i] = generator.generateBoard();
+        }
+    }
+
+    @Benchmark
+    public double evaluate() {
+        Board board = boards[next++ & (BOARDS - 1)];
+        return evaluator.evaluate(board, 100, context).getReward();
+    }
+
+    private static List<List<String>> lines(int size) {
+        List<List<String>> lines = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            lines.add(line(i, 0, 0, 1, size));
+            lines.add(line(0, i, 1, 0, size));
+        }
+        lines.add(line(0, 0, 1, 1, size));
+        lines.add(line(0, size - 1, 1, -1, size));
+        return lines;
+    }
+
+    private static List<List<String>> windows(int size) {
+        List<List<String>> windows = new ArrayList<>();
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                if (col + WINDOW <= size) {
+                    windows.add(line(row, col, 0, 1, WINDOW));
+                }
+                if (row + WINDOW <= size) {
+                    windows.add(line(row, col, 1, 0, WINDOW));
+                }
+                if (row + WINDOW <= size && col + WINDOW <= size) {
+                    windows.add(line(row, col, 1, 1, WINDOW));
+                }
+                if (row + WINDOW <= size && col - WINDOW + 1 >= 0) {
+                    windows.add(line(row, col, 1, -1, WINDOW));
+                }
+            }
+        }
+        return windows;
+    }
+
+    private static List<String> line(int row, int col, int rowStep, int colStep, int length) {
+        List<String> line = new ArrayList<>();
+        for (int i = 0; i < length; i++) {
+            line.add((row + i * rowStep) + ":" + (col + i * colStep));
+        }
+        return line;
+    }
+
+    private static WinningCombination combination(String name, double multiplier) {
+        WinningCombination combination = new WinningCombination();
+        combination.setName(name);
+        combination.setReward_multiplier(multiplier);
+        combination.setWhen("linear_symbols");
+        combination.setGroup(name);
+        return combination;
+    }
+
+    private static AreaRule rule(String type, Integer length) {
+        AreaRule rule = new AreaRule();
+        rule.setType(type);
+        rule.setLength(length);
+        return rule;
+    }
+}
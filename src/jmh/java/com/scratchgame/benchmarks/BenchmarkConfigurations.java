@@ -0,0 +1,134 @@
+package com.scratchgame.benchmarks;
+
+import com.scratchgame.enums.SymbolImpactEnum;
+import com.scratchgame.enums.SymbolTypeEnum;
+import com.scratchgame.model.Configuration;
+import com.scratchgame.model.Symbol;
+import com.scratchgame.model.WinningCombination;
+import com.scratchgame.model.probability.BonusSymbolProbability;
+import com.scratchgame.model.probability.Probabilities;
+import com.scratchgame.model.probability.StandardSymbolProbability;
+
+import java.util.*;
+
+// Builds synthetic configurations so the benchmarks can scale board size, symbol count and payline count
+final class BenchmarkConfigurations {
+
+    private BenchmarkConfigurations() {
+    }
+
+    static Configuration create(int size, int symbolCount, int paylines) {
+        Random random = new Random(size * 31L + symbolCount * 17L + paylines);
+
+        Map<String, Symbol> symbols = new LinkedHashMap<>();
+        Map<String, Integer> standardWeights = new LinkedHashMap<>();
+        for (int i = 0; i < symbolCount; i++) {
+            String name = "S" + i;
+            symbols.put(name, symbol(SymbolTypeEnum.standard, symbolCount - i, null, null));
+            standardWeights.put(name, 1 + random.nextInt(10));
+        }
+        symbols.put("10x", symbol(SymbolTypeEnum.bonus, 10.0, SymbolImpactEnum.multiply_reward, null));
+        symbols.put("5x", symbol(SymbolTypeEnum.bonus, 5.0, SymbolImpactEnum.multiply_reward, null));
+        symbols.put("+1000", symbol(SymbolTypeEnum.bonus, null, SymbolImpactEnum.extra_bonus, 1000));
+        symbols.put("+500", symbol(SymbolTypeEnum.bonus, null, SymbolImpactEnum.extra_bonus, 500));
+        symbols.put("MISS", symbol(SymbolTypeEnum.bonus, null, SymbolImpactEnum.miss, null));
+
+        Map<String, Integer> bonusWeights = new LinkedHashMap<>();
+        bonusWeights.put("10x", 1);
+        bonusWeights.put("5x", 2);
+        bonusWeights.put("+1000", 3);
+        bonusWeights.put("+500", 4);
+        bonusWeights.put("MISS", 5);
+
+        // A single entry is the default distribution of every cell
+        StandardSymbolProbability standard = new StandardSymbolProbability();
+        standard.setSymbols(standardWeights);
+        BonusSymbolProbability bonus = new BonusSymbolProbability();
+        bonus.setSymbols(bonusWeights);
+        Probabilities probabilities = new Probabilities();
+        probabilities.setStandard_symbols(List.of(standard));
+        probabilities.setBonus_symbols(bonus);
+
+        Map<String, WinningCombination> combinations = new LinkedHashMap<>();
+        int cells = size * size;
+        int step = Math.max(1, cells / 10);
+        for (int count = 3; count <= cells; count += step) {
+            combinations.put("same_symbol_" + count + "_times",
+                    combination("same_symbols", 1.0 + count / 4.0, count, "same_symbols", null));
+        }
+        combinations.put("paylines", combination("linear_symbols", 2.0, null, "paylines", paylines(size, paylines, random)));
+
+        Configuration config = new Configuration();
+        config.setRows(size);
+        config.setColumns(size);
+        config.setSymbols(symbols);
+        config.setProbabilities(probabilities);
+        config.setWin_combinations(combinations);
+        for (Map.Entry<String, WinningCombination> entry : combinations.entrySet()) {
+            entry.getValue().setName(entry.getKey());
+        }
+        return config;
+    }
+
+    // Rows, columns and diagonals first, then random left-to-right lines that move at most one row per column
+    private static List<List<String>> paylines(int size, int count, Random random) {
+        List<List<String>> lines = new ArrayList<>();
+        for (int row = 0; row < size && lines.size() < count; row++) {
+            List<String> line = new ArrayList<>();
+            for (int col = 0; col < size; col++) {
+                line.add(row + ":" + col);
+            }
+            lines.add(line);
+        }
+        for (int col = 0; col < size && lines.size() < count; col++) {
+            List<String> line = new ArrayList<>();
+            for (int row = 0; row < size; row++) {
+                line.add(row + ":" + col);
+            }
+            lines.add(line);
+        }
+        if (lines.size() < count) {
+            List<String> line = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                line.add(i + ":" + i);
+            }
+            lines.add(line);
+        }
+        if (lines.size() < count) {
+            List<String> line = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                line.add(i + ":" + (size - 1 - i));
+            }
+            lines.add(line);
+        }
+        while (lines.size() < count) {
+            List<String> line = new ArrayList<>();
+            int row = random.nextInt(size);
+            for (int col = 0; col < size; col++) {
+                line.add(row + ":" + col);
+                row = Math.max(0, Math.min(size - 1, row + random.nextInt(3) - 1));
+            }
+            lines.add(line);
+        }
+        return lines;
+    }
+
+    private static Symbol symbol(SymbolTypeEnum type, Number rewardMultiplier, SymbolImpactEnum impact, Integer extra) {
+        Symbol symbol = new Symbol();
+        symbol.setType(type);
+        symbol.setReward_multiplier(rewardMultiplier != null ? rewardMultiplier.doubleValue() : null);
+        symbol.setImpact(impact);
+        symbol.setExtra(extra);
+        return symbol;
+    }
+
+    private static WinningCombination combination(String when, double rewardMultiplier, Integer count, String group, List<List<String>> coveredAreas) {
+        WinningCombination combination = new WinningCombination();
+        combination.setWhen(when);
+        combination.setReward_multiplier(rewardMultiplier);
+        combination.setCount(count);
+        combination.setGroup(group);
+        combination.setCovered_areas(coveredAreas);
+        return combination;
+    }
+}
@@ -0,0 +1,40 @@
+package com.scratchgame.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scratchgame.model.Configuration;
+import com.scratchgame.util.ConfigurationLoader;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ConfigurationLoaderBenchmark {
+
+    @Param({"3", "5", "7", "10"})
+    private int size;
+
+    @Param({"5", "50"})
+    private int paylines;
+
+    private File configFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        configFile = File.createTempFile("benchmark-config", ".json");
+        configFile.deleteOnExit();
+        new ObjectMapper().writeValue(configFile, BenchmarkConfigurations.create(size, 6, paylines));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        configFile.delete();
+    }
+
+    @Benchmark
+    public Configuration loadConfig() throws Exception {
+        return ConfigurationLoader.loadConfig(configFile.getPath());
+    }
+}
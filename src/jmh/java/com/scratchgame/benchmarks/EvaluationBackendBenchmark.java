@@ -0,0 +1,61 @@
+package com.scratchgame.benchmarks;
+
+import com.scratchgame.compiled.CompiledGame;
+import com.scratchgame.service.Board;
+import com.scratchgame.service.EvaluationContext;
+import com.scratchgame.service.GameEvaluator;
+import com.scratchgame.service.MatrixGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Scalar against Vector API evaluation of the same generated boards
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class EvaluationBackendBenchmark {
+
+    private static final int BOARDS = 1024;
+    private static final double BET = 100;
+
+    @Param({"scalar", "vector"})
+    private String backend;
+
+    @Param({"3", "5", "7", "10"})
+    private int size;
+
+    @Param({"12"})
+    private int symbols;
+
+    @Param({"5", "20", "50"})
+    private int paylines;
+
+    private GameEvaluator evaluator;
+    private EvaluationContext context;
+    private Board[] boards;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        System.setProperty("scratchgame.evaluator", backend);
+        CompiledGame game = CompiledGame.compile(BenchmarkConfigurations.create(size, symbols, paylines));
+        evaluator = new GameEvaluator(game);
+        context = evaluator.newContext();
+
+        MatrixGenerator generator = new MatrixGenerator(game);
+        SplittableRandom random = new SplittableRandom(42);
+        boards = new Board[BOARDS];
+        for (int i = 0; i < BOARDS; i++) {
+            boards[i] = new Board(game.getRows(), game.getColumns());
+            generator.generate(boards[i], random);
+        }
+    }
+
+    @Benchmark
+    public double evaluate() {
+        next = (next + 1) & (BOARDS - 1);
+        return evaluator.evaluate(boards[next], BET, context).getReward();
+    }
+}
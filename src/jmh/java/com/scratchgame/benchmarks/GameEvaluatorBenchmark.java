@@ -0,0 +1,100 @@
+package com.scratchgame.benchmarks;
+
+import com.scratchgame.model.Configuration;
+import com.scratchgame.service.Board;
+import com.scratchgame.service.EvaluationContext;
+import com.scratchgame.service.GameEvaluator;
+import com.scratchgame.service.GameResult;
+import com.scratchgame.service.MatrixGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+// Run with -prof gc: the context variants are expected to report close to 0 B/op for gc.alloc.rate.norm
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GameEvaluatorBenchmark {
+
+    private static final int BOARDS = 1024;
+    private static final double BET = 100;
+
+    @Param({"3", "5", "7", "10"})
+    private int size;
+
+    @Param({"6", "12"})
+    private int symbols;
+
+    @Param({"5", "20", "50"})
+    private int paylines;
+
+    private GameEvaluator evaluator;
+    private EvaluationContext context;
+    private Board[] winningBoards;
+    private Board[] losingBoards;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Configuration config = BenchmarkConfigurations.create(size, symbols, paylines);
+        MatrixGenerator generator = new MatrixGenerator(config, new SplittableRandom(42));
+        evaluator = new GameEvaluator(config, generator.getSymbols());
+        context = evaluator.newContext();
+
+        // Sort generated boards by outcome so both branches of the evaluator are measured separately
+        List<Board> winning = new ArrayList<>();
+        List<Board> losing = new ArrayList<>();
+        for (int attempt = 0; attempt < BOARDS * 200 && (winning.size() < BOARDS || losing.size() < BOARDS); attempt++) {
+            Board board = generator.generateBoard();
+            List<Board> pool = evaluator.evaluate(board, BET, context).getReward() > 0 ? winning : losing;
+            if (pool.size() < BOARDS) {
+                pool.add(board);
+            }
+        }
+        if (winning.isEmpty()) {
+            winning.add(filledBoard(config, generator.getSymbols().idOf("S0")));
+        }
+        if (losing.isEmpty()) {
+            losing.add(filledBoard(config, generator.getSymbols().idOf("MISS")));
+        }
+        winningBoards = fill(winning);
+        losingBoards = fill(losing);
+    }
+
+    private static Board filledBoard(Configuration config, int symbolId) {
+        Board board = new Board(config.getRows(), config.getColumns());
+        for (int cell = 0; cell < board.size(); cell++) {
+            board.set(cell, symbolId);
+        }
+        return board;
+    }
+
+    private static Board[] fill(List<Board> pool) {
+        Board[] boards = new Board[BOARDS];
+        for (int i = 0; i < BOARDS; i++) {
+            boards[i] = pool.get(i % pool.size());
+        }
+        return boards;
+    }
+
+    private int nextIndex() {
+        next = (next + 1) & (BOARDS - 1);
+        return next;
+    }
+
+    @Benchmark
+    public double evaluateWinningBoard() {
+        return evaluator.evaluate(winningBoards[nextIndex()], BET, context).getReward();
+    }
+
+    @Benchmark
+    public double evaluateLosingBoard() {
+        return evaluator.evaluate(losingBoards[nextIndex()], BET, context).getReward();
+    }
+
+    @Benchmark
+    public GameResult evaluateWinningBoardToResult() {
+        return evaluator.evaluate(winningBoards[nextIndex()], BET);
+    }
+}
@@ -0,0 +1,54 @@
+package com.scratchgame.benchmarks;
+
+import com.scratchgame.model.Configuration;
+import com.scratchgame.service.Board;
+import com.scratchgame.service.GameEvaluator;
+import com.scratchgame.service.GameResult;
+import com.scratchgame.service.GameResultWriter;
+import com.scratchgame.service.MatrixGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GameResultJsonBenchmark {
+
+    @Param({"3", "5", "7", "10"})
+    private int size;
+
+    private GameResult result;
+    private GameResultWriter ndjsonWriter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        // Serialize a winning round so the applied combinations and bonus are part of the output
+        Configuration config = BenchmarkConfigurations.create(size, 6, 20);
+        MatrixGenerator generator = new MatrixGenerator(config, new SplittableRandom(42));
+        GameEvaluator evaluator = new GameEvaluator(config, generator.getSymbols());
+        Board board = generator.generateBoard();
+        result = evaluator.evaluate(board, 100);
+        for (int attempt = 0; attempt < 10_000 && result.getReward() == 0; attempt++) {
+            result = evaluator.evaluate(generator.generateBoard(), 100);
+        }
+        ndjsonWriter = new GameResultWriter(OutputStream.nullOutputStream(), GameResultWriter.Format.NDJSON);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        ndjsonWriter.close();
+    }
+
+    @Benchmark
+    public String toJson() throws Exception {
+        return result.toJson();
+    }
+
+    @Benchmark
+    public void writeNdjson() throws Exception {
+        ndjsonWriter.write(result);
+    }
+}
@@ -1,7 +1,9 @@
 package com.scratchgame.benchmarks;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scratchgame.compiled.CompiledGame;
 import com.scratchgame.model.Configuration;
+import com.scratchgame.service.Board;
 import com.scratchgame.service.MatrixGenerator;
 import org.openjdk.jmh.annotations.*;
 
@@ -11,7 +13,11 @@ import java.util.concurrent.TimeUnit;
 @State(Scope.Benchmark)
 public class MatrixGeneratorBenchmark {
 
+    @Param({"alias", "cumulative"})
+    private String sampler;
+
     private MatrixGenerator generator;
+    private Board board;
 
     @Setup(Level.Trial)
     public void setUp() throws Exception {
@@ -22,7 +28,8 @@ public class MatrixGeneratorBenchmark {
             throw new RuntimeException("config.json not found in resources");
         }
         Configuration config = mapper.readValue(configStream, Configuration.class);
-        generator = new MatrixGenerator(config);
+        generator = new MatrixGenerator(CompiledGame.compile(config, sampler));
+        board = new Board(config.getRows(), config.getColumns());
     }
 
     @Benchmark
@@ -31,4 +38,12 @@ public class MatrixGeneratorBenchmark {
     public String[][] testMatrixGeneration() {
         return generator.generate();
     }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Board testBoardGeneration() {
+        generator.generate(board);
+        return board;
+    }
 }
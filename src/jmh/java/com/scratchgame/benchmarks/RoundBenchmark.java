@@ -0,0 +1,99 @@
+package com.scratchgame.benchmarks;
+
+import com.scratchgame.compiled.CompiledGame;
+import com.scratchgame.metrics.GameMetrics;
+import com.scratchgame.model.Configuration;
+import com.scratchgame.random.RandomSource;
+import com.scratchgame.service.BatchPlayer;
+import com.scratchgame.service.Board;
+import com.scratchgame.service.EvaluationContext;
+import com.scratchgame.service.FusedRoundPlayer;
+import com.scratchgame.service.GameEvaluator;
+import com.scratchgame.service.GameResult;
+import com.scratchgame.service.MatrixGenerator;
+import com.scratchgame.service.RoundBatch;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// End-to-end rounds: drawing the board and evaluating it. The fused variants draw and scan in one pass,
+// for comparison with the two-pass path the game uses.
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RoundBenchmark {
+
+    private static final int BATCH = 1024;
+    private static final double BET = 100;
+
+    @Param({"3", "5", "7", "10"})
+    private int size;
+
+    @Param({"6", "12"})
+    private int symbols;
+
+    @Param({"5", "20", "50"})
+    private int paylines;
+
+    private MatrixGenerator generator;
+    private GameEvaluator evaluator;
+    private EvaluationContext context;
+    private Board board;
+    private BatchPlayer player;
+    private BatchPlayer meteredPlayer;
+    private FusedRoundPlayer fused;
+    private EvaluationContext fusedContext;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Configuration config = BenchmarkConfigurations.create(size, symbols, paylines);
+        generator = new MatrixGenerator(config, new SplittableRandom(42));
+        evaluator = new GameEvaluator(config, generator.getSymbols());
+        context = evaluator.newContext();
+        board = new Board(config.getRows(), config.getColumns());
+        player = new BatchPlayer(config, new SplittableRandom(42));
+        meteredPlayer = new BatchPlayer(new MatrixGenerator(config, new SplittableRandom(42)), evaluator, new GameMetrics());
+        fused = new FusedRoundPlayer(CompiledGame.compile(config), RandomSource.of(new SplittableRandom(42)));
+        fusedContext = fused.newContext();
+    }
+
+    @Benchmark
+    public double playRound() {
+        generator.generate(board);
+        return evaluator.evaluate(board, BET, context).getReward();
+    }
+
+    @Benchmark
+    public double playRoundFused() {
+        return fused.play(board, BET, fusedContext).getReward();
+    }
+
+    @Benchmark
+    public GameResult playRoundToResult() {
+        return evaluator.evaluate(generator.generateBoard(), BET);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public RoundBatch playBatch() {
+        return player.playBatch(BATCH, BET);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public RoundBatch playBatchWithMetrics() {
+        return meteredPlayer.playBatch(BATCH, BET);
+    }
+
+    // Same number of rounds as playBatch, each drawn and scanned in one pass
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public double playBatchFused() {
+        double total = 0.0;
+        for (int round = 0; round < BATCH; round++) {
+            total += fused.play(board, BET, fusedContext).getReward();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,85 @@
+package com.scratchgame.benchmarks;
+
+import com.scratchgame.journal.RoundJournalReader;
+import com.scratchgame.journal.RoundJournalWriter;
+import com.scratchgame.model.Configuration;
+import com.scratchgame.service.BatchPlayer;
+import com.scratchgame.service.RoundBatch;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Appending to and scanning the memory-mapped round journal, per record
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RoundJournalBenchmark {
+
+    private static final int RECORDS = 1 << 20;
+    private static final int BATCH = 4096;
+    private static final long MINUTE = 60_000L;
+
+    @Param({"3", "5"})
+    private int size;
+
+    private Path journal;
+    private Path appendJournal;
+    private Configuration config;
+    private RoundBatch batch;
+    private RoundJournalReader reader;
+    private RoundJournalWriter writer;
+    private long nextRound;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        config = BenchmarkConfigurations.create(size, 6, 5);
+        batch = new BatchPlayer(config, new SplittableRandom(42)).playBatch(BATCH, 100);
+
+        journal = Files.createTempFile("rounds", ".journal");
+        Files.delete(journal);
+        try (RoundJournalWriter fill = new RoundJournalWriter(journal, config)) {
+            for (int round = 0; round < RECORDS; round++) {
+                fill.append(round, 42, round * MINUTE, batch, round % BATCH);
+            }
+        }
+        reader = new RoundJournalReader(journal);
+
+        appendJournal = Files.createTempFile("append", ".journal");
+        Files.delete(appendJournal);
+        writer = new RoundJournalWriter(appendJournal, config);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        reader.close();
+        writer.close();
+        Files.deleteIfExists(journal);
+        Files.deleteIfExists(appendJournal);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long append() throws Exception {
+        for (int round = 0; round < BATCH; round++) {
+            writer.append(nextRound, 42, nextRound * MINUTE, batch, round);
+            nextRound++;
+        }
+        return writer.size();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public Object rtpByDay() {
+        return reader.rtpByDay(ZoneOffset.UTC);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public Object topWins() {
+        return reader.topWins(10);
+    }
+}
@@ -0,0 +1,89 @@
+package com.scratchgame.benchmarks;
+
+import com.scratchgame.compiled.CompiledGame;
+import com.scratchgame.compiled.GameSnapshot;
+import com.scratchgame.model.Configuration;
+import com.scratchgame.util.ConfigurationLoader;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Wall time of one short-lived CLI process playing a single round, from launching the JVM to its exit.
+// The game is read from JSON or from a compiled snapshot, with or without a dynamic class-data-sharing
+// archive recorded by a training run of the same command.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+public class StartupBenchmark {
+
+    @Param({"5", "10"})
+    private int size;
+
+    @Param({"json", "snapshot"})
+    private String format;
+
+    @Param({"false", "true"})
+    private boolean cds;
+
+    private Path directory;
+    private List<String> command;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("startup");
+        Configuration config = BenchmarkConfigurations.create(size, 6, 50);
+        Path game = directory.resolve(format.equals("json") ? "game.json" : "game.bin");
+        if (format.equals("json")) {
+            ConfigurationLoader.writeConfig(config, game.toString());
+        } else {
+            GameSnapshot.write(CompiledGame.compile(config), game);
+        }
+
+        List<String> arguments = List.of("-cp", System.getProperty("java.class.path"), "com.scratchgame.Main",
+                "--config", game.toString(), "--betting-amount", "100");
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        command = new ArrayList<>();
+        command.add(java);
+        if (cds) {
+            Path archive = directory.resolve("app.jsa");
+            List<String> training = new ArrayList<>(List.of(java, "-XX:ArchiveClassesAtExit=" + archive));
+            training.addAll(arguments);
+            run(training);
+            command.add("-XX:SharedArchiveFile=" + archive);
+        }
+        command.addAll(arguments);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public int playOneRound() throws Exception {
+        return run(command);
+    }
+
+    private static int run(List<String> command) throws Exception {
+        Process process = new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        int exitCode = process.waitFor();
+        if (exitCode != 0) {
+            throw new IllegalStateException("Process exited with " + exitCode + ": " + command);
+        }
+        return exitCode;
+    }
+}
@@ -1,11 +1,32 @@
 package com.scratchgame;
 
+import com.scratchgame.compiled.CompiledGame;
+import com.scratchgame.compiled.GameSnapshot;
+import com.scratchgame.compiled.SymbolSampler;
+import com.scratchgame.metrics.MetricsReporter;
 import com.scratchgame.model.Configuration;
+import com.scratchgame.server.GameServer;
+import com.scratchgame.service.Board;
 import com.scratchgame.service.GameEvaluator;
 import com.scratchgame.service.GameResult;
 import com.scratchgame.service.MatrixGenerator;
+import com.scratchgame.service.RoundReplayer;
+import com.scratchgame.simulation.ExactRtpCalculator;
+import com.scratchgame.simulation.MonteCarloSimulator;
+import com.scratchgame.simulation.RareTierSimulator;
+import com.scratchgame.simulation.SimulationReport;
+import com.scratchgame.simulation.TuningReport;
+import com.scratchgame.simulation.TuningTarget;
+import com.scratchgame.simulation.WeightTuner;
+import com.scratchgame.simulation.WhatIfEstimator;
 import com.scratchgame.util.CommandLineParser;
 import com.scratchgame.util.ConfigurationLoader;
+import com.scratchgame.util.ConfigurationWatcher;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.time.Duration;
 
 public class Main {
     public static void main(String[] args) {
@@ -15,22 +36,151 @@ public class Main {
         double bettingAmount = parser.getBettingAmount();
 
         try {
+            // A compiled game is read without Jackson, but only the modes that need nothing else can run it
+            Path configPath = Path.of(configFilePath);
+            if (GameSnapshot.isSnapshot(configPath)) {
+                CompiledGame game = GameSnapshot.read(configPath);
+                if (parser.getSampler() != null && !parser.getSampler().equals(game.getSampler())) {
+                    throw new IllegalArgumentException(configFilePath + " was compiled with the " + game.getSampler()
+                            + " sampler, recompile it to use " + parser.getSampler());
+                }
+                run(game, bettingAmount, parser);
+                return;
+            }
+
             // Load configuration
             Configuration config = ConfigurationLoader.loadConfig(configFilePath);
 
-            // Generate matrix
-            MatrixGenerator generator = new MatrixGenerator(config);
-            String[][] matrix = generator.generate();
-
-            // Evaluate game
-            GameEvaluator evaluator = new GameEvaluator(config);
-            GameResult result = evaluator.evaluate(matrix, bettingAmount);
-
-            // Output result
-            System.out.println(result.toJson());
+            switch (parser.getMode()) {
+                case "play":
+                case "simulate":
+                case "exact":
+                case "rare":
+                    run(compile(config, parser), bettingAmount, parser);
+                    break;
+                case "compile":
+                    String output = parser.getOutput() != null ? parser.getOutput() : "game.bin";
+                    CompiledGame game = compile(config, parser);
+                    GameSnapshot.write(game, Path.of(output));
+                    System.out.println("Compiled " + configFilePath + " to " + output + ", game hash " + game.getHash());
+                    break;
+                case "serve":
+                    serve(config, parser);
+                    break;
+                case "tune":
+                    tune(config, bettingAmount, parser);
+                    break;
+                case "whatif":
+                    whatIf(config, bettingAmount, parser);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown mode: " + parser.getMode());
+            }
         } catch (Exception e) {
             System.err.println("Error: " + e.getMessage());
             e.printStackTrace();
         }
     }
+
+    private static CompiledGame compile(Configuration config, CommandLineParser parser) {
+        return CompiledGame.compile(config, parser.getSampler() != null ? parser.getSampler() : SymbolSampler.DEFAULT);
+    }
+
+    private static void run(CompiledGame game, double bettingAmount, CommandLineParser parser) throws Exception {
+        long seed = parser.getSeed() != null ? parser.getSeed() : System.nanoTime();
+        switch (parser.getMode()) {
+            case "play":
+                play(game, bettingAmount, parser);
+                break;
+            case "simulate":
+                MonteCarloSimulator simulator = new MonteCarloSimulator(game, parser.getThreads());
+                SimulationReport report = simulator.simulate(parser.getRounds(), bettingAmount, seed);
+                System.out.println(report.toJson());
+                break;
+            case "exact":
+                System.out.println(new ExactRtpCalculator(game).calculate(bettingAmount).toJson());
+                break;
+            case "rare":
+                RareTierSimulator rare = new RareTierSimulator(game, parser.getThreads());
+                System.out.println(rare.simulate(parser.getRounds(), bettingAmount, seed).toJson());
+                break;
+            default:
+                throw new IllegalArgumentException("Mode " + parser.getMode() + " needs a JSON configuration,"
+                        + " compiled games run in play, simulate, exact and rare mode");
+        }
+    }
+
+    private static void play(CompiledGame game, double bettingAmount, CommandLineParser parser) throws Exception {
+        // A seeded round is reconstructed from (seed, round id) on the game it was played on
+        if (parser.getSeed() != null) {
+            if (parser.getGameHash() == null) {
+                throw new IllegalArgumentException("Replaying a round needs --game-hash, the hash returned with its round id");
+            }
+            RoundReplayer replayer = new RoundReplayer(game, parser.getSeed());
+            System.out.println(replayer.replay(parser.getRound(), parser.getGameHash(), bettingAmount).toJson());
+            return;
+        }
+
+        // Generate matrix
+        MatrixGenerator generator = new MatrixGenerator(game);
+        Board board = generator.generateBoard();
+
+        // Evaluate game
+        GameEvaluator evaluator = new GameEvaluator(game);
+        GameResult result = evaluator.evaluate(board, bettingAmount);
+
+        // Output result
+        System.out.println(result.toJson());
+    }
+
+    private static void tune(Configuration config, double bettingAmount, CommandLineParser parser) throws Exception {
+        TuningTarget target = new TuningTarget();
+        target.setRtp_min(parser.getTargetRtp()[0]);
+        target.setRtp_max(parser.getTargetRtp()[1]);
+        target.setHit_frequency_min(parser.getTargetHitFrequency()[0]);
+        target.setHit_frequency_max(parser.getTargetHitFrequency()[1]);
+        target.setVolatility_min(parser.getTargetVolatility()[0]);
+        target.setVolatility_max(parser.getTargetVolatility()[1]);
+
+        long seed = parser.getSeed() != null ? parser.getSeed() : System.nanoTime();
+        WeightTuner tuner = new WeightTuner(config, parser.getThreads(), parser.getCandidateRounds());
+        TuningReport report = tuner.tune(target, bettingAmount, parser.getGenerations(), seed);
+        ConfigurationLoader.writeConfig(report.getConfiguration(),
+                parser.getOutput() != null ? parser.getOutput() : "tuned_config.json");
+        System.out.println(report.toJson());
+    }
+
+    private static void whatIf(Configuration config, double bettingAmount, CommandLineParser parser) throws Exception {
+        if (parser.getModifiedConfigFilePath() == null) {
+            throw new IllegalArgumentException("whatif mode needs --modified-config <file>");
+        }
+        long seed = parser.getSeed() != null ? parser.getSeed() : System.nanoTime();
+        CompiledGame game = compile(config, parser);
+        int rounds = (int) Math.min(parser.getRounds(), Integer.MAX_VALUE / game.getCells());
+        WhatIfEstimator estimator = new WhatIfEstimator(game, rounds, bettingAmount, seed);
+        Configuration modified = ConfigurationLoader.loadConfig(parser.getModifiedConfigFilePath());
+        System.out.println(estimator.estimate(modified).toJson());
+    }
+
+    private static void serve(Configuration config, CommandLineParser parser) throws Exception {
+        InetSocketAddress address = new InetSocketAddress("localhost", parser.getPort());
+        CompiledGame game = compile(config, parser);
+        GameServer server = new GameServer(game, address, parser.getSeed(), parser.getRound());
+        ConfigurationWatcher watcher = new ConfigurationWatcher(Path.of(parser.getConfigFilePath()), game.getSampler(), server::reload);
+        // Metrics are always published over JMX, the snapshot line is only printed with an interval
+        MetricsReporter reporter = new MetricsReporter(server.getMetrics(),
+                Duration.ofSeconds(parser.getMetricsInterval()), System.err);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            reporter.close();
+            try {
+                watcher.close();
+            } catch (IOException e) {
+                System.err.println("Error: configuration watcher did not close: " + e.getMessage());
+            }
+        }));
+        watcher.start();
+        server.start();
+        System.err.println("Serving rounds on http://localhost:" + server.getAddress().getPort());
+    }
 }
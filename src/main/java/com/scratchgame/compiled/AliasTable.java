@@ -0,0 +1,99 @@
+package com.scratchgame.compiled;
+
+import java.util.random.RandomGenerator;
+
+// Walker/Vose alias table over integer weights. Every weight is scaled by the column count so that
+// each column holds exactly totalWeight units, which keeps the selection probabilities exact.
+public class AliasTable implements SymbolSampler {
+    private final int[] symbolIds;
+    private final int[] aliases;
+    private final long[] thresholds;
+    private final long columnWeight;
+    private final long bound;
+
+    public AliasTable(int[] symbolIds, int[] weights) {
+        if (symbolIds.length != weights.length) {
+            throw new IllegalArgumentException("Symbol ids and weights must have the same length");
+        }
+
+        int size = symbolIds.length;
+        long totalWeight = 0;
+        for (int weight : weights) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("Symbol weights must not be negative");
+            }
+            totalWeight += weight;
+        }
+        if (size == 0 || totalWeight == 0) {
+            throw new IllegalArgumentException("Alias table requires at least one positive weight");
+        }
+
+        this.symbolIds = symbolIds.clone();
+        this.aliases = new int[size];
+        this.thresholds = new long[size];
+        this.columnWeight = totalWeight;
+        this.bound = totalWeight * size;
+
+        long[] scaled = new long[size];
+        int[] small = new int[size];
+        int[] large = new int[size];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < size; i++) {
+            scaled[i] = (long) weights[i] * size;
+            if (scaled[i] < totalWeight) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            thresholds[less] = scaled[less];
+            aliases[less] = more;
+            scaled[more] -= totalWeight - scaled[less];
+            if (scaled[more] < totalWeight) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+
+        // Integer arithmetic leaves no rounding residue, so whatever remains fills its column completely
+        while (largeCount > 0) {
+            int column = large[--largeCount];
+            thresholds[column] = totalWeight;
+            aliases[column] = column;
+        }
+        while (smallCount > 0) {
+            int column = small[--smallCount];
+            thresholds[column] = totalWeight;
+            aliases[column] = column;
+        }
+    }
+
+    @Override
+    public int sample(RandomGenerator random) {
+        long value = random.nextLong(bound);
+        int column = (int) (value / columnWeight);
+        return value % columnWeight < thresholds[column] ? symbolIds[column] : symbolIds[aliases[column]];
+    }
+
+    @Override
+    public void sample(RandomGenerator random, byte[] out, int offset, int stride, int count) {
+        int index = offset;
+        for (int i = 0; i < count; i++) {
+            long value = random.nextLong(bound);
+            int column = (int) (value / columnWeight);
+            out[index] = (byte) (value % columnWeight < thresholds[column] ? symbolIds[column] : symbolIds[aliases[column]]);
+            index += stride;
+        }
+    }
+
+    @Override
+    public int size() {
+        return symbolIds.length;
+    }
+}
@@ -0,0 +1,294 @@
+package com.scratchgame.compiled;
+
+import com.scratchgame.enums.AreaRuleTypeEnum;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// The area rules of one linear_symbols combination, compiled without listing their areas. Line rules become
+// runs: a step between consecutive cells, a length and a mask of the cells a run may start at without leaving
+// the board. All rows, columns, diagonals or windows of a run are tested together by ANDing the occupancy with
+// itself shifted by every multiple of the step, so the cost grows with the run length, not the line count.
+// Cluster rules keep the smallest size, and the symbol's cells are flood-filled into orthogonally connected
+// groups until one is large enough. Occupancies use the cell bit layout of WinCombinationTable.
+public class AreaRuleSet {
+    private final int rows;
+    private final int columns;
+    private final int words;
+    private final AreaRuleTypeEnum[] types;
+    private final int[] lengths;
+    private final int[] runSteps;
+    private final int[] runLengths;
+    private final long[][] runStarts;
+    // Integer.MAX_VALUE without a clusters rule
+    private final int clusterSize;
+    private final long[] notFirstColumn;
+    private final long[] notLastColumn;
+    private final int minCells;
+
+    private AreaRuleSet(int rows, int columns, AreaRuleTypeEnum[] types, int[] lengths) {
+        this.rows = rows;
+        this.columns = columns;
+        this.words = WinCombinationTable.wordsFor(rows * columns);
+        this.types = types.clone();
+        this.lengths = lengths.clone();
+
+        List<int[]> runs = new ArrayList<>();
+        List<long[]> starts = new ArrayList<>();
+        int smallestCluster = Integer.MAX_VALUE;
+        int diagonal = Math.min(rows, columns);
+        for (int i = 0; i < types.length; i++) {
+            switch (types[i]) {
+                case rows -> addRun(runs, starts, 1, columns, 0, rows - 1, 0, 0);
+                case columns -> addRun(runs, starts, columns, rows, 0, 0, 0, columns - 1);
+                // The two diagonals from the top corners, as long as the shorter side of the board
+                case diagonals -> {
+                    addRun(runs, starts, columns + 1, diagonal, 0, 0, 0, 0);
+                    addRun(runs, starts, columns - 1, diagonal, 0, 0, columns - 1, columns - 1);
+                }
+                case windows -> {
+                    int length = lengths[i];
+                    addRun(runs, starts, 1, length, 0, rows - 1, 0, columns - length);
+                    addRun(runs, starts, columns, length, 0, rows - length, 0, columns - 1);
+                    addRun(runs, starts, columns + 1, length, 0, rows - length, 0, columns - length);
+                    addRun(runs, starts, columns - 1, length, 0, rows - length, length - 1, columns - 1);
+                }
+                case clusters -> smallestCluster = Math.min(smallestCluster, lengths[i]);
+            }
+        }
+        this.runSteps = new int[runs.size()];
+        this.runLengths = new int[runs.size()];
+        this.runStarts = starts.toArray(new long[0][]);
+        int shortestRun = Integer.MAX_VALUE;
+        for (int run = 0; run < runSteps.length; run++) {
+            runSteps[run] = runs.get(run)[0];
+            runLengths[run] = runs.get(run)[1];
+            shortestRun = Math.min(shortestRun, runLengths[run]);
+        }
+        this.clusterSize = smallestCluster;
+        this.minCells = Math.min(shortestRun, clusterSize);
+
+        this.notFirstColumn = new long[words];
+        this.notLastColumn = new long[words];
+        for (int cell = 0; cell < rows * columns; cell++) {
+            if (cell % columns != 0) {
+                notFirstColumn[cell >>> 6] |= 1L << cell;
+            }
+            if (cell % columns != columns - 1) {
+                notLastColumn[cell >>> 6] |= 1L << cell;
+            }
+        }
+    }
+
+    // Lengths are only read for windows and clusters
+    public static AreaRuleSet compile(int rows, int columns, AreaRuleTypeEnum[] types, int[] lengths) {
+        if (types.length != lengths.length) {
+            throw new IllegalArgumentException("Area rule types and lengths must have the same length");
+        }
+        for (int i = 0; i < types.length; i++) {
+            if ((types[i] == AreaRuleTypeEnum.windows || types[i] == AreaRuleTypeEnum.clusters) && lengths[i] < 1) {
+                throw new IllegalArgumentException("Area rule " + types[i] + " needs a positive length");
+            }
+        }
+        return new AreaRuleSet(rows, columns, types, lengths);
+    }
+
+    // Unknown types stay null, like unknown conditions
+    public static AreaRuleTypeEnum parseType(String type) {
+        for (AreaRuleTypeEnum value : AreaRuleTypeEnum.values()) {
+            if (value.name().equals(type)) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    // Adds a run starting at every cell in the row and column ranges, unless the ranges are empty
+    private void addRun(List<int[]> runs, List<long[]> starts, int step, int length,
+                        int firstRow, int lastRow, int firstColumn, int lastColumn) {
+        long[] mask = new long[words];
+        boolean any = false;
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstColumn; col <= lastColumn; col++) {
+                int cell = row * columns + col;
+                mask[cell >>> 6] |= 1L << cell;
+                any = true;
+            }
+        }
+        if (any) {
+            runs.add(new int[]{step, length});
+            starts.add(mask);
+        }
+    }
+
+    // Scratch must hold twice the words of the board, or be null to allocate one when clusters need it
+    public boolean covers(long[] occupancy, int offset, long[] scratch) {
+        if (words == 1) {
+            return covers(occupancy[offset]);
+        }
+        for (int run = 0; run < runSteps.length; run++) {
+            int step = runSteps[run];
+            int length = runLengths[run];
+            long[] start = runStarts[run];
+            for (int word = 0; word < words; word++) {
+                long covered = start[word] & occupancy[offset + word];
+                for (int i = 1; covered != 0 && i < length; i++) {
+                    covered &= shiftedRight(occupancy, offset, word, i * step);
+                }
+                if (covered != 0) {
+                    return true;
+                }
+            }
+        }
+        return clusterSize != Integer.MAX_VALUE
+                && hasCluster(occupancy, offset, scratch != null ? scratch : new long[2 * words]);
+    }
+
+    // Boards of up to 64 cells, no run reaches past the last cell so plain shifts never wrap
+    private boolean covers(long occupancy) {
+        for (int run = 0; run < runSteps.length; run++) {
+            int step = runSteps[run];
+            long covered = runStarts[run][0] & occupancy;
+            for (int i = 1, shift = step; covered != 0 && i < runLengths[run]; i++, shift += step) {
+                covered &= occupancy >>> shift;
+            }
+            if (covered != 0) {
+                return true;
+            }
+        }
+        return clusterSize != Integer.MAX_VALUE && hasCluster(occupancy);
+    }
+
+    private boolean hasCluster(long occupancy) {
+        long remaining = occupancy;
+        while (Long.bitCount(remaining) >= clusterSize) {
+            long cluster = Long.lowestOneBit(remaining);
+            long previous;
+            do {
+                previous = cluster;
+                cluster |= ((cluster << 1) & notFirstColumn[0] | (cluster >>> 1) & notLastColumn[0]
+                        | cluster << columns | cluster >>> columns) & remaining;
+            } while (cluster != previous);
+            if (Long.bitCount(cluster) >= clusterSize) {
+                return true;
+            }
+            remaining &= ~cluster;
+        }
+        return false;
+    }
+
+    // Same flood fill over several words, remaining cells in the first half of the scratch, the growing
+    // cluster in the second. Growing in place only ever adds connected cells, so it converges to the same group.
+    private boolean hasCluster(long[] occupancy, int offset, long[] scratch) {
+        int remainingCount = 0;
+        for (int word = 0; word < words; word++) {
+            scratch[word] = occupancy[offset + word];
+            remainingCount += Long.bitCount(scratch[word]);
+        }
+        while (remainingCount >= clusterSize) {
+            Arrays.fill(scratch, words, 2 * words, 0L);
+            for (int word = 0; word < words; word++) {
+                if (scratch[word] != 0) {
+                    scratch[words + word] = Long.lowestOneBit(scratch[word]);
+                    break;
+                }
+            }
+
+            boolean grown;
+            do {
+                grown = false;
+                for (int word = 0; word < words; word++) {
+                    long cluster = scratch[words + word];
+                    long next = cluster | ((shiftedLeft(scratch, words, word, 1) & notFirstColumn[word])
+                            | (shiftedRight(scratch, words, word, 1) & notLastColumn[word])
+                            | shiftedLeft(scratch, words, word, columns)
+                            | shiftedRight(scratch, words, word, columns)) & scratch[word];
+                    if (next != cluster) {
+                        scratch[words + word] = next;
+                        grown = true;
+                    }
+                }
+            } while (grown);
+
+            int size = 0;
+            for (int word = 0; word < words; word++) {
+                size += Long.bitCount(scratch[words + word]);
+                scratch[word] &= ~scratch[words + word];
+            }
+            if (size >= clusterSize) {
+                return true;
+            }
+            remainingCount -= size;
+        }
+        return false;
+    }
+
+    // Word of the occupancy shifted towards lower cells, bit c holding cell c + shift
+    private long shiftedRight(long[] occupancy, int offset, int word, int shift) {
+        int from = word + (shift >>> 6);
+        int bits = shift & 63;
+        long low = from < words ? occupancy[offset + from] >>> bits : 0L;
+        long high = bits != 0 && from + 1 < words ? occupancy[offset + from + 1] << (64 - bits) : 0L;
+        return low | high;
+    }
+
+    // Word of the occupancy shifted towards higher cells, bit c holding cell c - shift
+    private long shiftedLeft(long[] occupancy, int offset, int word, int shift) {
+        int from = word - (shift >>> 6);
+        int bits = shift & 63;
+        long high = from >= 0 ? occupancy[offset + from] << bits : 0L;
+        long low = bits != 0 && from - 1 >= 0 ? occupancy[offset + from - 1] >>> (64 - bits) : 0L;
+        return high | low;
+    }
+
+    // Every line of the line rules as a cell mask, for consumers that need the areas one by one
+    public long[][] expandLines() {
+        List<long[]> lines = new ArrayList<>();
+        for (int run = 0; run < runSteps.length; run++) {
+            for (int start = 0; start < rows * columns; start++) {
+                if ((runStarts[run][start >>> 6] & (1L << start)) != 0) {
+                    long[] line = new long[words];
+                    for (int i = 0; i < runLengths[run]; i++) {
+                        int cell = start + i * runSteps[run];
+                        line[cell >>> 6] |= 1L << cell;
+                    }
+                    lines.add(line);
+                }
+            }
+        }
+        return lines.toArray(new long[0][]);
+    }
+
+    public boolean hasClusters() {
+        return clusterSize != Integer.MAX_VALUE;
+    }
+
+    // Fewest cells any generated area needs, Integer.MAX_VALUE when no area fits on the board
+    public int getMinCells() {
+        return minCells;
+    }
+
+    public int size() {
+        return types.length;
+    }
+
+    public AreaRuleTypeEnum getType(int rule) {
+        return types[rule];
+    }
+
+    public int getLength(int rule) {
+        return lengths[rule];
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof AreaRuleSet rules && rows == rules.rows && columns == rules.columns
+                && Arrays.equals(types, rules.types) && Arrays.equals(lengths, rules.lengths);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * rows + columns) + 31 * Arrays.hashCode(types) + Arrays.hashCode(lengths);
+    }
+}
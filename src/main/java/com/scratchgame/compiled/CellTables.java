@@ -0,0 +1,157 @@
+package com.scratchgame.compiled;
+
+import com.scratchgame.model.Configuration;
+import com.scratchgame.model.probability.StandardSymbolProbability;
+
+import java.util.*;
+
+// Per-cell symbol distributions compiled once per configuration, indexed by row * columns + column
+public class CellTables {
+    private final int rows;
+    private final int columns;
+    private final String sampler;
+    private final SymbolSampler[] tables;
+    private final int[][] weights;
+    private final long[] totalWeights;
+    private final int[][] tableSymbolIds;
+    private final int[][] tableWeights;
+
+    private CellTables(int rows, int columns, String sampler, SymbolSampler[] tables, int[][] weights, long[] totalWeights,
+                       int[][] tableSymbolIds, int[][] tableWeights) {
+        this.rows = rows;
+        this.columns = columns;
+        this.sampler = sampler;
+        this.tables = tables;
+        this.weights = weights;
+        this.totalWeights = totalWeights;
+        this.tableSymbolIds = tableSymbolIds;
+        this.tableWeights = tableWeights;
+    }
+
+    public static CellTables compile(Configuration config, SymbolTable symbols) {
+        return compile(config, symbols, SymbolSampler.DEFAULT);
+    }
+
+    public static CellTables compile(Configuration config, SymbolTable symbols, String sampler) {
+        int rows = config.getRows();
+        int columns = config.getColumns();
+        List<StandardSymbolProbability> standardProbabilities = config.getProbabilities().getStandard_symbols();
+        Map<String, Integer> bonusSymbolWeights = config.getProbabilities().getBonus_symbols().getSymbols();
+
+        // Cells with the same weights in the same order share one table, cells without their own entry
+        // fall back to the first one
+        Map<List<Map.Entry<String, Integer>>, int[][]> compiled = new HashMap<>();
+        int[][] tableSymbolIds = new int[rows * columns][];
+        int[][] tableWeights = new int[rows * columns][];
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < columns; col++) {
+                int cell = row * columns + col;
+                StandardSymbolProbability probability = findProbabilityForCell(row, col, standardProbabilities);
+                List<Map.Entry<String, Integer>> distribution =
+                        List.copyOf(combineWeights(probability.getSymbols(), bonusSymbolWeights).entrySet());
+                int[][] entries = compiled.computeIfAbsent(distribution, d -> compileEntries(d, symbols));
+                tableSymbolIds[cell] = entries[0];
+                tableWeights[cell] = entries[1];
+            }
+        }
+
+        return of(rows, columns, symbols.size(), tableSymbolIds, tableWeights, sampler);
+    }
+
+    // Builds the tables from the entries of every cell in sampling order. Cells holding the same entry
+    // arrays share one table, so the entries of a snapshot compile to the same tables as the configuration.
+    static CellTables of(int rows, int columns, int symbolCount, int[][] tableSymbolIds, int[][] tableWeights, String sampler) {
+        Map<int[], SymbolSampler> compiled = new IdentityHashMap<>();
+        Map<int[], int[]> compiledWeights = new IdentityHashMap<>();
+        SymbolSampler[] tables = new SymbolSampler[rows * columns];
+        int[][] weights = new int[rows * columns][];
+        long[] totalWeights = new long[rows * columns];
+        for (int cell = 0; cell < tables.length; cell++) {
+            int[] symbolIds = tableSymbolIds[cell];
+            int[] entryWeights = tableWeights[cell];
+            tables[cell] = compiled.computeIfAbsent(symbolIds, ids -> SymbolSampler.create(sampler, ids, entryWeights));
+            weights[cell] = compiledWeights.computeIfAbsent(symbolIds, ids -> {
+                int[] byId = new int[symbolCount];
+                for (int i = 0; i < ids.length; i++) {
+                    byId[ids[i]] = entryWeights[i];
+                }
+                return byId;
+            });
+            for (int weight : weights[cell]) {
+                totalWeights[cell] += weight;
+            }
+        }
+
+        return new CellTables(rows, columns, sampler, tables, weights, totalWeights, tableSymbolIds, tableWeights);
+    }
+
+    private static StandardSymbolProbability findProbabilityForCell(int row, int col, List<StandardSymbolProbability> standardProbabilities) {
+        for (StandardSymbolProbability prob : standardProbabilities) {
+            if (prob.getRow() == row && prob.getColumn() == col) {
+                return prob;
+            }
+        }
+        return standardProbabilities.get(0);
+    }
+
+    private static Map<String, Integer> combineWeights(Map<String, Integer> standardWeights, Map<String, Integer> bonusWeights) {
+        Map<String, Integer> combinedWeights = new LinkedHashMap<>(standardWeights);
+        combinedWeights.putAll(bonusWeights);
+        return combinedWeights;
+    }
+
+    private static int[][] compileEntries(List<Map.Entry<String, Integer>> distribution, SymbolTable symbols) {
+        int[] symbolIds = new int[distribution.size()];
+        int[] weights = new int[distribution.size()];
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : distribution) {
+            symbolIds[i] = symbols.idOf(entry.getKey());
+            weights[i] = entry.getValue();
+            i++;
+        }
+        return new int[][]{symbolIds, weights};
+    }
+
+    // Name of the sampler every table was built with
+    public String getSampler() {
+        return sampler;
+    }
+
+    public SymbolSampler get(int cell) {
+        return tables[cell];
+    }
+
+    // Weight of every symbol id in the given cell, shared between cells with the same distribution
+    public int[] getWeights(int cell) {
+        return weights[cell];
+    }
+
+    public long getTotalWeight(int cell) {
+        return totalWeights[cell];
+    }
+
+    // Symbol ids of the cell's table in sampling order, together with getTableWeights
+    int[] getTableSymbolIds(int cell) {
+        return tableSymbolIds[cell];
+    }
+
+    int[] getTableWeights(int cell) {
+        return tableWeights[cell];
+    }
+
+    public double probability(int cell, int symbolId) {
+        return (double) weights[cell][symbolId] / totalWeights[cell];
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int size() {
+        return tables.length;
+    }
+}
@@ -0,0 +1,226 @@
+package com.scratchgame.compiled;
+
+import com.scratchgame.enums.AreaRuleTypeEnum;
+import com.scratchgame.enums.SymbolImpactEnum;
+import com.scratchgame.enums.SymbolTypeEnum;
+import com.scratchgame.enums.WinningCombinationWhenEnum;
+import com.scratchgame.model.AreaRule;
+import com.scratchgame.model.Configuration;
+import com.scratchgame.model.Symbol;
+import com.scratchgame.model.WinningCombination;
+import com.scratchgame.model.probability.Probabilities;
+import com.scratchgame.model.probability.Probability;
+import com.scratchgame.model.probability.StandardSymbolProbability;
+
+import java.util.*;
+
+// Everything the hot path needs from one configuration, validated and compiled once. Immutable, so a
+// snapshot can be shared by any number of threads and replaced as a whole when the configuration changes.
+public final class CompiledGame {
+    private final int rows;
+    private final int columns;
+    private final SymbolTable symbols;
+    private final CellTables cellTables;
+    private final WinCombinationTable combinations;
+    // Computed on first use, racing threads compute the same value
+    private volatile String hash;
+
+    CompiledGame(int rows, int columns, SymbolTable symbols, CellTables cellTables, WinCombinationTable combinations) {
+        this.rows = rows;
+        this.columns = columns;
+        this.symbols = symbols;
+        this.cellTables = cellTables;
+        this.combinations = combinations;
+    }
+
+    public static CompiledGame compile(Configuration config) {
+        return compile(config, SymbolSampler.DEFAULT);
+    }
+
+    // The sampler decides which symbols a random stream draws, so seeded rounds only replay on the same one
+    public static CompiledGame compile(Configuration config, String sampler) {
+        validate(config);
+        SymbolTable symbols = SymbolTable.of(config);
+        return new CompiledGame(config.getRows(), config.getColumns(), symbols,
+                CellTables.compile(config, symbols, sampler), WinCombinationTable.compile(config));
+    }
+
+    // Recompiles only the cell tables from the probabilities of the given configuration, which must use the
+    // same symbols and board size. Symbols and combinations are shared with this game and nothing is validated,
+    // so callers must keep every weight non-negative and every cell's total positive.
+    public CompiledGame withProbabilities(Configuration config) {
+        return new CompiledGame(rows, columns, symbols, CellTables.compile(config, symbols, getSampler()), combinations);
+    }
+
+    private static void validate(Configuration config) {
+        if (config.getRows() < 1 || config.getColumns() < 1) {
+            throw new IllegalArgumentException("Board must have at least one row and one column");
+        }
+
+        Map<String, Symbol> symbols = config.getSymbols() != null ? config.getSymbols() : Map.of();
+        for (Map.Entry<String, Symbol> entry : symbols.entrySet()) {
+            validateSymbol(entry.getKey(), entry.getValue());
+        }
+
+        Probabilities probabilities = config.getProbabilities();
+        if (probabilities == null || probabilities.getStandard_symbols() == null || probabilities.getStandard_symbols().isEmpty()) {
+            throw new IllegalArgumentException("At least one standard symbol probability is required");
+        }
+        if (probabilities.getBonus_symbols() == null || probabilities.getBonus_symbols().getSymbols() == null) {
+            throw new IllegalArgumentException("Bonus symbol probabilities are required");
+        }
+        validateWeights("bonus_symbols", probabilities.getBonus_symbols(), symbols, SymbolTypeEnum.bonus);
+        for (StandardSymbolProbability probability : probabilities.getStandard_symbols()) {
+            String cell = probability.getRow() + ":" + probability.getColumn();
+            if (probability.getRow() < 0 || probability.getRow() >= config.getRows()
+                    || probability.getColumn() < 0 || probability.getColumn() >= config.getColumns()) {
+                throw new IllegalArgumentException("Standard symbol probability for cell " + cell + " is outside the board");
+            }
+            if (probability.getSymbols() == null) {
+                throw new IllegalArgumentException("Standard symbol probability for cell " + cell + " has no symbols");
+            }
+            validateWeights("cell " + cell, probability, symbols, SymbolTypeEnum.standard);
+
+            long total = 0;
+            for (Integer weight : probability.getSymbols().values()) {
+                total += weight;
+            }
+            for (Integer weight : probabilities.getBonus_symbols().getSymbols().values()) {
+                total += weight;
+            }
+            if (total <= 0) {
+                throw new IllegalArgumentException("Symbol weights of cell " + cell + " must not all be zero");
+            }
+        }
+
+        if (config.getWin_combinations() != null) {
+            for (Map.Entry<String, WinningCombination> entry : config.getWin_combinations().entrySet()) {
+                validateCombination(entry.getKey(), entry.getValue(), config.getRows(), config.getColumns());
+            }
+        }
+    }
+
+    private static void validateSymbol(String name, Symbol symbol) {
+        if (symbol == null || symbol.getType() == null) {
+            throw new IllegalArgumentException("Symbol " + name + " has no type");
+        }
+        if (symbol.getType() == SymbolTypeEnum.standard && symbol.getReward_multiplier() == null) {
+            throw new IllegalArgumentException("Standard symbol " + name + " has no reward_multiplier");
+        }
+        if (symbol.getType() == SymbolTypeEnum.bonus) {
+            if (symbol.getImpact() == null) {
+                throw new IllegalArgumentException("Bonus symbol " + name + " has no impact");
+            }
+            if (symbol.getImpact() == SymbolImpactEnum.multiply_reward && symbol.getReward_multiplier() == null) {
+                throw new IllegalArgumentException("Bonus symbol " + name + " has no reward_multiplier");
+            }
+            if (symbol.getImpact() == SymbolImpactEnum.extra_bonus && symbol.getExtra() == null) {
+                throw new IllegalArgumentException("Bonus symbol " + name + " has no extra");
+            }
+        }
+    }
+
+    // Symbols missing from the symbol definitions are still drawn, they just never win
+    private static void validateWeights(String where, Probability probability, Map<String, Symbol> symbols, SymbolTypeEnum type) {
+        for (Map.Entry<String, Integer> entry : probability.getSymbols().entrySet()) {
+            if (entry.getValue() == null || entry.getValue() < 0) {
+                throw new IllegalArgumentException("Weight of " + entry.getKey() + " in " + where + " must not be negative");
+            }
+            Symbol symbol = symbols.get(entry.getKey());
+            if (symbol != null && symbol.getType() != type) {
+                throw new IllegalArgumentException("Symbol " + entry.getKey() + " in " + where + " must be a " + type + " symbol");
+            }
+        }
+    }
+
+    private static void validateCombination(String name, WinningCombination combination, int rows, int columns) {
+        WinningCombinationWhenEnum when = WinCombinationTable.parseWhen(combination.getWhen());
+        if (when == null) {
+            throw new IllegalArgumentException("Win combination " + name + " has unknown condition: " + combination.getWhen());
+        }
+        if (combination.getReward_multiplier() == null) {
+            throw new IllegalArgumentException("Win combination " + name + " has no reward_multiplier");
+        }
+        if (combination.getGroup() == null) {
+            throw new IllegalArgumentException("Win combination " + name + " has no group");
+        }
+        if (when == WinningCombinationWhenEnum.same_symbols && (combination.getCount() == null || combination.getCount() < 1)) {
+            throw new IllegalArgumentException("Win combination " + name + " needs a positive count");
+        }
+        if (when == WinningCombinationWhenEnum.linear_symbols) {
+            List<List<String>> coveredAreas = combination.getCovered_areas() != null ? combination.getCovered_areas() : List.of();
+            List<AreaRule> areaRules = combination.getArea_rules() != null ? combination.getArea_rules() : List.of();
+            if (coveredAreas.isEmpty() && areaRules.isEmpty()) {
+                throw new IllegalArgumentException("Win combination " + name + " has no covered_areas or area_rules");
+            }
+            for (List<String> area : coveredAreas) {
+                for (String position : area) {
+                    if (!WinCombinationTable.POSITION.matcher(position).matches()) {
+                        throw new IllegalArgumentException("Win combination " + name + " has an invalid position: " + position);
+                    }
+                    if (!isOnBoard(position, rows, columns)) {
+                        throw new IllegalArgumentException("Win combination " + name + " has a position outside the board: " + position);
+                    }
+                }
+            }
+            for (AreaRule rule : areaRules) {
+                AreaRuleTypeEnum type = AreaRuleSet.parseType(rule.getType());
+                if (type == null) {
+                    throw new IllegalArgumentException("Win combination " + name + " has unknown area rule: " + rule.getType());
+                }
+                if ((type == AreaRuleTypeEnum.windows || type == AreaRuleTypeEnum.clusters)
+                        && (rule.getLength() == null || rule.getLength() < 1)) {
+                    throw new IllegalArgumentException("Win combination " + name + " needs a positive length for its " + type + " rule");
+                }
+            }
+        }
+    }
+
+    // Positions too large for an int are off the board as well
+    private static boolean isOnBoard(String position, int rows, int columns) {
+        String[] parts = position.split(":");
+        try {
+            return Integer.parseInt(parts[0].trim()) < rows && Integer.parseInt(parts[1].trim()) < columns;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getCells() {
+        return rows * columns;
+    }
+
+    public SymbolTable getSymbols() {
+        return symbols;
+    }
+
+    public CellTables getCellTables() {
+        return cellTables;
+    }
+
+    public WinCombinationTable getCombinations() {
+        return combinations;
+    }
+
+    public String getSampler() {
+        return cellTables.getSampler();
+    }
+
+    // Identifies the rules a round is played by, a round id only replays on a game with the same hash
+    public String getHash() {
+        String current = hash;
+        if (current == null) {
+            current = GameSnapshot.hash(this);
+            hash = current;
+        }
+        return current;
+    }
+}
@@ -0,0 +1,95 @@
+package com.scratchgame.compiled;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+// Cumulative integer weights searched with a binary search. Symbols are ordered by descending weight,
+// ties by id, so a draw in [0, totalWeight) maps to the same symbol on every run and can be audited by hand.
+public class CumulativeTable implements SymbolSampler {
+    private final int[] symbolIds;
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+
+    public CumulativeTable(int[] symbolIds, int[] weights) {
+        if (symbolIds.length != weights.length) {
+            throw new IllegalArgumentException("Symbol ids and weights must have the same length");
+        }
+
+        long total = 0;
+        int positive = 0;
+        for (int weight : weights) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("Symbol weights must not be negative");
+            }
+            total += weight;
+            if (weight > 0) {
+                positive++;
+            }
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("Cumulative table requires at least one positive weight");
+        }
+        if (total > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Total symbol weight " + total + " exceeds " + Integer.MAX_VALUE);
+        }
+
+        // Zero weights can never be drawn and are left out
+        Integer[] order = new Integer[positive];
+        for (int i = 0, j = 0; i < weights.length; i++) {
+            if (weights[i] > 0) {
+                order[j++] = i;
+            }
+        }
+        Arrays.sort(order, (a, b) -> weights[a] != weights[b]
+                ? Integer.compare(weights[b], weights[a])
+                : Integer.compare(symbolIds[a], symbolIds[b]));
+
+        this.symbolIds = new int[positive];
+        this.cumulativeWeights = new int[positive];
+        int cumulative = 0;
+        for (int i = 0; i < positive; i++) {
+            cumulative += weights[order[i]];
+            this.symbolIds[i] = symbolIds[order[i]];
+            this.cumulativeWeights[i] = cumulative;
+        }
+        this.totalWeight = cumulative;
+    }
+
+    @Override
+    public int sample(RandomGenerator random) {
+        return select(random.nextInt(totalWeight));
+    }
+
+    @Override
+    public void sample(RandomGenerator random, byte[] out, int offset, int stride, int count) {
+        int index = offset;
+        for (int i = 0; i < count; i++) {
+            out[index] = (byte) select(random.nextInt(totalWeight));
+            index += stride;
+        }
+    }
+
+    // The first symbol whose cumulative weight exceeds the value
+    int select(int value) {
+        int low = 0;
+        int high = cumulativeWeights.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulativeWeights[mid] > value) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return symbolIds[low];
+    }
+
+    public int getTotalWeight() {
+        return totalWeight;
+    }
+
+    @Override
+    public int size() {
+        return symbolIds.length;
+    }
+}
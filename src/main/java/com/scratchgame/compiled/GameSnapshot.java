@@ -0,0 +1,310 @@
+package com.scratchgame.compiled;
+
+import com.scratchgame.enums.AreaRuleTypeEnum;
+import com.scratchgame.enums.SymbolImpactEnum;
+import com.scratchgame.enums.SymbolTypeEnum;
+import com.scratchgame.enums.WinningCombinationWhenEnum;
+import com.scratchgame.model.Symbol;
+import com.scratchgame.model.WinningCombination;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.zip.CRC32;
+
+// Binary image of a compiled game, so short-lived processes skip JSON parsing and validation. Only games that
+// passed CompiledGame.compile are written, and reading checks the checksum and every index before building
+// the tables, so a snapshot loads into the same game the configuration compiles to.
+// Layout: magic, version, body, CRC32 of magic, version and body. The body holds the board size, the sampler,
+// the symbols, every distinct cell table with its entries in sampling order, the table of every cell, and the combinations
+// with their area masks and area rules. Big-endian, strings as modified UTF-8, absent enums as empty strings.
+public final class GameSnapshot {
+    private static final int MAGIC = 0x5347534e;
+    private static final int VERSION = 3;
+    private static final int HEADER_SIZE = 8;
+    private static final int CHECKSUM_SIZE = 8;
+
+    private GameSnapshot() {
+    }
+
+    public static void write(CompiledGame game, Path path) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        writeBody(out, game);
+
+        CRC32 checksum = new CRC32();
+        checksum.update(bytes.toByteArray());
+        out.writeLong(checksum.getValue());
+        out.flush();
+        Files.write(path, bytes.toByteArray());
+    }
+
+    // First 64 bits of the SHA-256 of the body in hex. The body holds everything that decides a round, so a
+    // game compiled from JSON and its snapshot share a hash, and any change to weights, combinations or the
+    // sampler gives a new one.
+    static String hash(CompiledGame game) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            writeBody(out, game);
+            out.flush();
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes.toByteArray());
+            return HexFormat.of().formatHex(digest, 0, Long.BYTES);
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Game hash could not be computed", e);
+        }
+    }
+
+    public static CompiledGame read(Path path) throws IOException {
+        byte[] bytes = Files.readAllBytes(path);
+        if (bytes.length < HEADER_SIZE + CHECKSUM_SIZE) {
+            throw new IllegalArgumentException("Not a game snapshot: " + path);
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        if (in.readInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a game snapshot: " + path);
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported game snapshot version: " + version);
+        }
+        CRC32 checksum = new CRC32();
+        checksum.update(bytes, 0, bytes.length - CHECKSUM_SIZE);
+        long expected = new DataInputStream(new ByteArrayInputStream(bytes, bytes.length - CHECKSUM_SIZE, CHECKSUM_SIZE)).readLong();
+        if (checksum.getValue() != expected) {
+            throw new IllegalArgumentException("Corrupt game snapshot, checksum mismatch: " + path);
+        }
+
+        try {
+            int rows = in.readInt();
+            int columns = in.readInt();
+            if (rows < 1 || columns < 1 || (long) rows * columns > Integer.MAX_VALUE / Long.SIZE) {
+                throw new IllegalArgumentException("Corrupt game snapshot, invalid board size " + rows + "x" + columns);
+            }
+            String sampler = in.readUTF();
+            if (!SymbolSampler.NAMES.contains(sampler)) {
+                throw new IllegalArgumentException("Corrupt game snapshot, unknown sampler: " + sampler);
+            }
+            SymbolTable symbols = readSymbols(in);
+            CellTables cellTables = readCellTables(in, rows, columns, symbols.size(), sampler);
+            WinCombinationTable combinations = readCombinations(in, rows, columns);
+            if (in.available() != CHECKSUM_SIZE) {
+                throw new IllegalArgumentException("Corrupt game snapshot, unexpected trailing data");
+            }
+            return new CompiledGame(rows, columns, symbols, cellTables, combinations);
+        } catch (EOFException e) {
+            throw new IllegalArgumentException("Corrupt game snapshot, truncated: " + path, e);
+        }
+    }
+
+    // Checks the magic number only, so callers can tell a snapshot from a JSON configuration
+    public static boolean isSnapshot(Path path) {
+        try (InputStream in = Files.newInputStream(path)) {
+            byte[] magic = in.readNBytes(Integer.BYTES);
+            return magic.length == Integer.BYTES && new DataInputStream(new ByteArrayInputStream(magic)).readInt() == MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static void writeBody(DataOutputStream out, CompiledGame game) throws IOException {
+        out.writeInt(game.getRows());
+        out.writeInt(game.getColumns());
+        out.writeUTF(game.getSampler());
+        writeSymbols(out, game.getSymbols());
+        writeCellTables(out, game.getCellTables());
+        writeCombinations(out, game.getCombinations());
+    }
+
+    private static void writeSymbols(DataOutputStream out, SymbolTable symbols) throws IOException {
+        out.writeInt(symbols.size());
+        for (int id = 0; id < symbols.size(); id++) {
+            out.writeUTF(symbols.name(id));
+            out.writeUTF(symbols.type(id) != null ? symbols.type(id).name() : "");
+            out.writeDouble(symbols.rewardMultiplier(id));
+            out.writeUTF(symbols.impact(id) != null ? symbols.impact(id).name() : "");
+            out.writeInt(symbols.extra(id));
+        }
+    }
+
+    private static SymbolTable readSymbols(DataInputStream in) throws IOException {
+        int size = readCount(in, SymbolTable.MAX_SYMBOLS, "symbols");
+        List<String> names = new ArrayList<>(size);
+        Map<String, Symbol> symbolConfigs = new HashMap<>();
+        for (int id = 0; id < size; id++) {
+            String name = in.readUTF();
+            String type = in.readUTF();
+            double rewardMultiplier = in.readDouble();
+            String impact = in.readUTF();
+            int extra = in.readInt();
+            if (names.contains(name)) {
+                throw new IllegalArgumentException("Corrupt game snapshot, duplicate symbol " + name);
+            }
+            names.add(name);
+            if (!type.isEmpty()) {
+                Symbol symbol = new Symbol();
+                symbol.setType(parseEnum(SymbolTypeEnum.class, type));
+                symbol.setReward_multiplier(rewardMultiplier);
+                symbol.setImpact(impact.isEmpty() ? null : parseEnum(SymbolImpactEnum.class, impact));
+                symbol.setExtra(extra);
+                symbolConfigs.put(name, symbol);
+            }
+        }
+        return SymbolTable.of(names, symbolConfigs);
+    }
+
+    private static void writeCellTables(DataOutputStream out, CellTables cellTables) throws IOException {
+        // Tables shared between cells are written once
+        Map<int[], Integer> indices = new IdentityHashMap<>();
+        int[] cellIndices = new int[cellTables.size()];
+        List<Integer> firstCells = new ArrayList<>();
+        for (int cell = 0; cell < cellTables.size(); cell++) {
+            Integer index = indices.get(cellTables.getTableSymbolIds(cell));
+            if (index == null) {
+                index = indices.size();
+                indices.put(cellTables.getTableSymbolIds(cell), index);
+                firstCells.add(cell);
+            }
+            cellIndices[cell] = index;
+        }
+
+        out.writeInt(firstCells.size());
+        for (int cell : firstCells) {
+            int[] symbolIds = cellTables.getTableSymbolIds(cell);
+            int[] weights = cellTables.getTableWeights(cell);
+            out.writeInt(symbolIds.length);
+            for (int i = 0; i < symbolIds.length; i++) {
+                out.writeInt(symbolIds[i]);
+                out.writeInt(weights[i]);
+            }
+        }
+        for (int index : cellIndices) {
+            out.writeInt(index);
+        }
+    }
+
+    private static CellTables readCellTables(DataInputStream in, int rows, int columns, int symbolCount, String sampler) throws IOException {
+        int cells = rows * columns;
+        int tableCount = readCount(in, cells, "cell tables");
+        int[][] symbolIds = new int[tableCount][];
+        int[][] weights = new int[tableCount][];
+        for (int table = 0; table < tableCount; table++) {
+            int size = readCount(in, symbolCount, "table entries");
+            symbolIds[table] = new int[size];
+            weights[table] = new int[size];
+            long total = 0;
+            for (int i = 0; i < size; i++) {
+                symbolIds[table][i] = readIndex(in, symbolCount, "symbol id");
+                weights[table][i] = in.readInt();
+                if (weights[table][i] < 0) {
+                    throw new IllegalArgumentException("Corrupt game snapshot, negative weight");
+                }
+                total += weights[table][i];
+            }
+            if (total <= 0) {
+                throw new IllegalArgumentException("Corrupt game snapshot, cell table without weight");
+            }
+        }
+
+        int[][] cellSymbolIds = new int[cells][];
+        int[][] cellWeights = new int[cells][];
+        for (int cell = 0; cell < cells; cell++) {
+            int table = readIndex(in, tableCount, "cell table");
+            cellSymbolIds[cell] = symbolIds[table];
+            cellWeights[cell] = weights[table];
+        }
+        return CellTables.of(rows, columns, symbolCount, cellSymbolIds, cellWeights, sampler);
+    }
+
+    private static void writeCombinations(DataOutputStream out, WinCombinationTable combinations) throws IOException {
+        out.writeInt(combinations.size());
+        for (int combination = 0; combination < combinations.size(); combination++) {
+            out.writeUTF(combinations.getName(combination));
+            WinningCombinationWhenEnum when = combinations.getWhen(combination);
+            out.writeUTF(when != null ? when.name() : "");
+            out.writeInt(combinations.getCount(combination));
+            out.writeDouble(combinations.getMultiplier(combination));
+            out.writeUTF(combinations.getGroupName(combinations.getGroupId(combination)));
+            long[][] masks = combinations.getAreaMasks(combination);
+            out.writeInt(masks.length);
+            for (long[] mask : masks) {
+                for (long word : mask) {
+                    out.writeLong(word);
+                }
+            }
+            AreaRuleSet rules = combinations.getAreaRules(combination);
+            out.writeInt(rules != null ? rules.size() : 0);
+            for (int rule = 0; rules != null && rule < rules.size(); rule++) {
+                out.writeUTF(rules.getType(rule).name());
+                out.writeInt(rules.getLength(rule));
+            }
+        }
+    }
+
+    private static WinCombinationTable readCombinations(DataInputStream in, int rows, int columns) throws IOException {
+        int words = WinCombinationTable.wordsFor(rows * columns);
+        int size = readCount(in, Integer.MAX_VALUE, "win combinations");
+        WinningCombination[] combinations = new WinningCombination[size];
+        long[][][] areaMasks = new long[size][][];
+        AreaRuleSet[] areaRules = new AreaRuleSet[size];
+        for (int i = 0; i < size; i++) {
+            WinningCombination combination = new WinningCombination();
+            combination.setName(in.readUTF());
+            String when = in.readUTF();
+            combination.setWhen(when.isEmpty() ? null : parseEnum(WinningCombinationWhenEnum.class, when).name());
+            combination.setCount(in.readInt());
+            combination.setReward_multiplier(in.readDouble());
+            combination.setGroup(in.readUTF());
+            combinations[i] = combination;
+
+            // Every mask takes at least one word, which bounds the count by what is left of the snapshot
+            int areas = readCount(in, in.available() / (Long.BYTES * words), "covered areas");
+            areaMasks[i] = new long[areas][words];
+            for (int area = 0; area < areas; area++) {
+                for (int word = 0; word < words; word++) {
+                    areaMasks[i][area][word] = in.readLong();
+                }
+            }
+
+            // A rule takes at least six bytes
+            int rules = readCount(in, in.available() / 6, "area rules");
+            AreaRuleTypeEnum[] types = new AreaRuleTypeEnum[rules];
+            int[] lengths = new int[rules];
+            for (int rule = 0; rule < rules; rule++) {
+                types[rule] = parseEnum(AreaRuleTypeEnum.class, in.readUTF());
+                lengths[rule] = in.readInt();
+            }
+            areaRules[i] = rules > 0 ? AreaRuleSet.compile(rows, columns, types, lengths) : null;
+        }
+        return WinCombinationTable.of(combinations, areaMasks, areaRules, rows * columns);
+    }
+
+    private static int readCount(DataInputStream in, int max, String what) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > max) {
+            throw new IllegalArgumentException("Corrupt game snapshot, invalid number of " + what + ": " + count);
+        }
+        return count;
+    }
+
+    private static int readIndex(DataInputStream in, int size, String what) throws IOException {
+        int index = in.readInt();
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Corrupt game snapshot, invalid " + what + ": " + index);
+        }
+        return index;
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String name) {
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Corrupt game snapshot, unknown " + type.getSimpleName() + ": " + name);
+        }
+    }
+}
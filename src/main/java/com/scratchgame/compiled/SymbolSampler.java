@@ -0,0 +1,31 @@
+package com.scratchgame.compiled;
+
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+// Draws symbol ids from one cell's integer weights. Both implementations select every symbol with
+// probability exactly weight / totalWeight, they only differ in how a draw is mapped to a symbol.
+public interface SymbolSampler {
+    // The two map the same draws to different symbols, so the sampler is compiled into the game and recorded
+    // wherever rounds must be replayed. Journals store it as its index in NAMES, so names are only ever appended.
+    String DEFAULT = "alias";
+    List<String> NAMES = List.of("alias", "cumulative");
+
+    int sample(RandomGenerator random);
+
+    // Draws count symbols into out[offset], out[offset + stride], ... with the same draws as repeated sample calls
+    void sample(RandomGenerator random, byte[] out, int offset, int stride, int count);
+
+    int size();
+
+    static SymbolSampler create(String sampler, int[] symbolIds, int[] weights) {
+        switch (sampler) {
+            case "alias":
+                return new AliasTable(symbolIds, weights);
+            case "cumulative":
+                return new CumulativeTable(symbolIds, weights);
+            default:
+                throw new IllegalArgumentException("Unknown symbol sampler: " + sampler);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.scratchgame.compiled;
+
+import com.scratchgame.enums.SymbolImpactEnum;
+import com.scratchgame.enums.SymbolTypeEnum;
+import com.scratchgame.model.Configuration;
+import com.scratchgame.model.Symbol;
+import com.scratchgame.model.probability.Probabilities;
+import com.scratchgame.model.probability.Probability;
+
+import java.util.*;
+
+public class SymbolTable {
+    // Boards store symbol ids as bytes
+    public static final int MAX_SYMBOLS = Byte.MAX_VALUE;
+
+    private final String[] names;
+    private final Map<String, Integer> ids;
+    private final SymbolTypeEnum[] types;
+    private final double[] rewardMultipliers;
+    private final SymbolImpactEnum[] impacts;
+    private final int[] extras;
+
+    private SymbolTable(List<String> names, Map<String, Symbol> symbolConfigs) {
+        if (names.size() > MAX_SYMBOLS) {
+            throw new IllegalArgumentException("At most " + MAX_SYMBOLS + " symbols are supported, got " + names.size());
+        }
+
+        int size = names.size();
+        this.names = names.toArray(new String[0]);
+        this.ids = new HashMap<>();
+        this.types = new SymbolTypeEnum[size];
+        this.rewardMultipliers = new double[size];
+        this.impacts = new SymbolImpactEnum[size];
+        this.extras = new int[size];
+
+        for (int id = 0; id < size; id++) {
+            ids.put(this.names[id], id);
+
+            // Symbols without a configuration keep a null type and never take part in evaluation
+            Symbol symbol = symbolConfigs != null ? symbolConfigs.get(this.names[id]) : null;
+            if (symbol != null) {
+                types[id] = symbol.getType();
+                rewardMultipliers[id] = symbol.getReward_multiplier() != null ? symbol.getReward_multiplier() : 0.0;
+                impacts[id] = symbol.getImpact();
+                extras[id] = symbol.getExtra() != null ? symbol.getExtra() : 0;
+            }
+        }
+    }
+
+    public static SymbolTable of(Configuration config) {
+        // Configured symbols first, in declaration order, so ids are stable for the same config file
+        Set<String> names = new LinkedHashSet<>();
+        if (config.getSymbols() != null) {
+            names.addAll(config.getSymbols().keySet());
+        }
+
+        // Symbols that only appear in the probability tables still need an id to be drawn
+        Probabilities probabilities = config.getProbabilities();
+        if (probabilities != null) {
+            if (probabilities.getStandard_symbols() != null) {
+                for (Probability probability : probabilities.getStandard_symbols()) {
+                    addNames(names, probability);
+                }
+            }
+            addNames(names, probabilities.getBonus_symbols());
+        }
+
+        return new SymbolTable(new ArrayList<>(names), config.getSymbols());
+    }
+
+    // Ids follow the order of names, symbols missing from the map keep a null type
+    static SymbolTable of(List<String> names, Map<String, Symbol> symbolConfigs) {
+        return new SymbolTable(names, symbolConfigs);
+    }
+
+    private static void addNames(Set<String> names, Probability probability) {
+        if (probability != null && probability.getSymbols() != null) {
+            names.addAll(probability.getSymbols().keySet());
+        }
+    }
+
+    public int idOf(String name) {
+        Integer id = ids.get(name);
+        return id != null ? id : -1;
+    }
+
+    public String name(int id) {
+        return names[id];
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public SymbolTypeEnum type(int id) {
+        return types[id];
+    }
+
+    public boolean isStandard(int id) {
+        return types[id] == SymbolTypeEnum.standard;
+    }
+
+    public boolean isBonus(int id) {
+        return types[id] == SymbolTypeEnum.bonus;
+    }
+
+    public double rewardMultiplier(int id) {
+        return rewardMultipliers[id];
+    }
+
+    public SymbolImpactEnum impact(int id) {
+        return impacts[id];
+    }
+
+    public int extra(int id) {
+        return extras[id];
+    }
+}
@@ -0,0 +1,318 @@
+package com.scratchgame.compiled;
+
+import com.scratchgame.enums.AreaRuleTypeEnum;
+import com.scratchgame.enums.WinningCombinationWhenEnum;
+import com.scratchgame.model.AreaRule;
+import com.scratchgame.model.Configuration;
+import com.scratchgame.model.WinningCombination;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+// Winning combinations with every linear_symbols covered area compiled into a bitmask over cell indices,
+// and their area rules into an AreaRuleSet
+public class WinCombinationTable {
+    // "row:column", shared with CompiledGame's validation
+    static final Pattern POSITION = Pattern.compile("\\s*\\d+\\s*:\\s*\\d+\\s*");
+
+    private final String[] names;
+    private final long[][][] areaMasks;
+    // null for combinations without area rules
+    private final AreaRuleSet[] areaRules;
+    private final int words;
+    private final WinningCombinationWhenEnum[] when;
+    private final int[] counts;
+    private final double[] multipliers;
+    private final int[] groupIds;
+    private final String[] groupNames;
+    private final int[] sameSymbolsGroups;
+    private final int[][] bestSameSymbolsByCount;
+    private final int[] linearCombinations;
+    private final int minWinningCount;
+    private final int minLinearCount;
+
+    private WinCombinationTable(WinningCombination[] combinations, long[][][] areaMasks, AreaRuleSet[] areaRules, int cells) {
+        this.names = new String[combinations.length];
+        this.areaMasks = areaMasks;
+        this.areaRules = areaRules;
+        this.words = wordsFor(cells);
+        this.when = new WinningCombinationWhenEnum[combinations.length];
+        this.counts = new int[combinations.length];
+        this.multipliers = new double[combinations.length];
+        this.groupIds = new int[combinations.length];
+
+        // Groups get dense ids in the order they first appear
+        Map<String, Integer> groups = new LinkedHashMap<>();
+        for (int i = 0; i < combinations.length; i++) {
+            WinningCombination combination = combinations[i];
+            names[i] = combination.getName();
+            when[i] = parseWhen(combination.getWhen());
+            counts[i] = combination.getCount() != null ? combination.getCount() : 0;
+            multipliers[i] = combination.getReward_multiplier() != null ? combination.getReward_multiplier() : 0.0;
+            Integer groupId = groups.get(combination.getGroup());
+            if (groupId == null) {
+                groupId = groups.size();
+                groups.put(combination.getGroup(), groupId);
+            }
+            groupIds[i] = groupId;
+        }
+        this.groupNames = groups.keySet().toArray(new String[0]);
+
+        // Per group, the best same_symbols combination reached by each count. A combination with count k
+        // is reached by every count from k up, so counts past the highest tier share the last entry. No symbol
+        // covers more cells than the board has, so tiers above that are never reached and get no entry.
+        int maxCount = 0;
+        for (int i = 0; i < combinations.length; i++) {
+            if (isSameSymbols(i)) {
+                maxCount = Math.max(maxCount, Math.min(counts[i], cells));
+            }
+        }
+        int[][] byCount = new int[groupNames.length][];
+        List<Integer> sameGroups = new ArrayList<>();
+        List<Integer> linear = new ArrayList<>();
+        for (int i = 0; i < combinations.length; i++) {
+            if (isLinearSymbols(i)) {
+                linear.add(i);
+            } else if (isSameSymbols(i)) {
+                int[] best = byCount[groupIds[i]];
+                if (best == null) {
+                    best = new int[maxCount + 1];
+                    Arrays.fill(best, -1);
+                    byCount[groupIds[i]] = best;
+                    sameGroups.add(groupIds[i]);
+                }
+                for (int count = Math.max(counts[i], 0); count <= maxCount; count++) {
+                    if (isBetter(i, best[count])) {
+                        best[count] = i;
+                    }
+                }
+            }
+        }
+        this.sameSymbolsGroups = sameGroups.stream().mapToInt(Integer::intValue).toArray();
+        this.bestSameSymbolsByCount = new int[sameSymbolsGroups.length][];
+        for (int i = 0; i < sameSymbolsGroups.length; i++) {
+            bestSameSymbolsByCount[i] = byCount[sameSymbolsGroups[i]];
+        }
+        this.linearCombinations = linear.stream().mapToInt(Integer::intValue).toArray();
+
+        // A symbol needs at least this many cells to reach any tier or to fill any area, so a symbol below
+        // the threshold can be skipped and a board where every symbol is below it cannot win at all
+        int minSameCount = Integer.MAX_VALUE;
+        int minAreaCells = Integer.MAX_VALUE;
+        for (int i = 0; i < combinations.length; i++) {
+            if (isSameSymbols(i)) {
+                minSameCount = Math.min(minSameCount, Math.max(counts[i], 1));
+            } else if (isLinearSymbols(i)) {
+                for (long[] mask : areaMasks[i]) {
+                    int areaCells = 0;
+                    for (long word : mask) {
+                        areaCells += Long.bitCount(word);
+                    }
+                    minAreaCells = Math.min(minAreaCells, Math.max(areaCells, 1));
+                }
+                if (areaRules[i] != null) {
+                    minAreaCells = Math.min(minAreaCells, Math.max(areaRules[i].getMinCells(), 1));
+                }
+            }
+        }
+        this.minLinearCount = minAreaCells;
+        this.minWinningCount = Math.min(minSameCount, minAreaCells);
+    }
+
+    public static WinCombinationTable compile(Configuration config) {
+        int rows = config.getRows();
+        int columns = config.getColumns();
+        int words = wordsFor(rows * columns);
+
+        Collection<WinningCombination> configured = config.getWin_combinations() != null
+                ? config.getWin_combinations().values()
+                : Collections.emptyList();
+        WinningCombination[] combinations = configured.toArray(new WinningCombination[0]);
+        long[][][] areaMasks = new long[combinations.length][][];
+        AreaRuleSet[] areaRules = new AreaRuleSet[combinations.length];
+
+        for (int i = 0; i < combinations.length; i++) {
+            List<List<String>> coveredAreas = combinations[i].getCovered_areas();
+            List<long[]> masks = new ArrayList<>();
+            if (coveredAreas != null) {
+                for (List<String> area : coveredAreas) {
+                    long[] mask = compileArea(combinations[i].getName(), area, rows, columns, words);
+                    if (mask != null) {
+                        masks.add(mask);
+                    }
+                }
+            }
+            areaMasks[i] = masks.toArray(new long[0][]);
+            areaRules[i] = compileRules(combinations[i].getArea_rules(), rows, columns);
+        }
+
+        return new WinCombinationTable(combinations, areaMasks, areaRules, rows * columns);
+    }
+
+    // Combinations with their areas already compiled to masks over a board of the given number of cells
+    static WinCombinationTable of(WinningCombination[] combinations, long[][][] areaMasks, AreaRuleSet[] areaRules, int cells) {
+        return new WinCombinationTable(combinations, areaMasks, areaRules, cells);
+    }
+
+    // Rules of unknown type are skipped, they never match
+    private static AreaRuleSet compileRules(List<AreaRule> rules, int rows, int columns) {
+        if (rules == null || rules.isEmpty()) {
+            return null;
+        }
+        List<AreaRuleTypeEnum> types = new ArrayList<>();
+        List<Integer> lengths = new ArrayList<>();
+        for (AreaRule rule : rules) {
+            AreaRuleTypeEnum type = AreaRuleSet.parseType(rule.getType());
+            if (type != null) {
+                types.add(type);
+                lengths.add(rule.getLength() != null ? rule.getLength() : 0);
+            }
+        }
+        return AreaRuleSet.compile(rows, columns, types.toArray(new AreaRuleTypeEnum[0]),
+                lengths.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    // Malformed positions are rejected like CompiledGame rejects them, configurations compiled here skip its validation
+    private static long[] compileArea(String name, List<String> area, int rows, int columns, int words) {
+        long[] mask = new long[words];
+        for (String position : area) {
+            if (!POSITION.matcher(position).matches()) {
+                throw new IllegalArgumentException("Win combination " + name + " has an invalid position: " + position);
+            }
+            String[] parts = position.split(":");
+            int row;
+            int col;
+            try {
+                row = Integer.parseInt(parts[0].trim());
+                col = Integer.parseInt(parts[1].trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            // A position outside the board can never be covered, so neither can the area
+            if (row >= rows || col >= columns) {
+                return null;
+            }
+            int cell = row * columns + col;
+            mask[cell >>> 6] |= 1L << cell;
+        }
+        return mask;
+    }
+
+    // Unknown conditions stay null and never match
+    public static WinningCombinationWhenEnum parseWhen(String when) {
+        for (WinningCombinationWhenEnum value : WinningCombinationWhenEnum.values()) {
+            if (value.name().equals(when)) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    public static int wordsFor(int cells) {
+        return Math.max(1, (cells + 63) >>> 6);
+    }
+
+    public boolean coversAnyArea(int combination, long[] occupancy, int offset) {
+        return coversAnyArea(combination, occupancy, offset, null);
+    }
+
+    // Scratch of twice the words keeps cluster rules on multi-word boards from allocating, see AreaRuleSet
+    public boolean coversAnyArea(int combination, long[] occupancy, int offset, long[] scratch) {
+        for (long[] mask : areaMasks[combination]) {
+            boolean covered = true;
+            for (int word = 0; word < words; word++) {
+                if ((occupancy[offset + word] & mask[word]) != mask[word]) {
+                    covered = false;
+                    break;
+                }
+            }
+            if (covered) {
+                return true;
+            }
+        }
+        return areaRules[combination] != null && areaRules[combination].covers(occupancy, offset, scratch);
+    }
+
+    // A higher multiplier wins, ties go to the combination declared first
+    public boolean isBetter(int combination, int existing) {
+        return existing < 0 || multipliers[combination] > multipliers[existing]
+                || (multipliers[combination] == multipliers[existing] && combination < existing);
+    }
+
+    // Groups holding same_symbols combinations, indexed like getBestSameSymbols
+    public int[] getSameSymbolsGroups() {
+        return sameSymbolsGroups;
+    }
+
+    // Best same_symbols combination of the index-th same_symbols group reached by count, or -1
+    public int getBestSameSymbols(int index, int count) {
+        int[] best = bestSameSymbolsByCount[index];
+        return best[Math.min(count, best.length - 1)];
+    }
+
+    public int[] getLinearCombinations() {
+        return linearCombinations;
+    }
+
+    // Integer.MAX_VALUE when nothing can be won
+    public int getMinWinningCount() {
+        return minWinningCount;
+    }
+
+    public int getMinLinearCount() {
+        return minLinearCount;
+    }
+
+    public long[][] getAreaMasks(int combination) {
+        return areaMasks[combination];
+    }
+
+    // null when the combination has no area rules
+    public AreaRuleSet getAreaRules(int combination) {
+        return areaRules[combination];
+    }
+
+    public WinningCombinationWhenEnum getWhen(int combination) {
+        return when[combination];
+    }
+
+    public boolean isSameSymbols(int combination) {
+        return when[combination] == WinningCombinationWhenEnum.same_symbols;
+    }
+
+    public boolean isLinearSymbols(int combination) {
+        return when[combination] == WinningCombinationWhenEnum.linear_symbols;
+    }
+
+    public int getCount(int combination) {
+        return counts[combination];
+    }
+
+    public double getMultiplier(int combination) {
+        return multipliers[combination];
+    }
+
+    public int getGroupId(int combination) {
+        return groupIds[combination];
+    }
+
+    public String getGroupName(int groupId) {
+        return groupNames[groupId];
+    }
+
+    public int getGroupCount() {
+        return groupNames.length;
+    }
+
+    public String getName(int combination) {
+        return names[combination];
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public int getWords() {
+        return words;
+    }
+}
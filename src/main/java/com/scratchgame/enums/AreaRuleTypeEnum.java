@@ -0,0 +1,5 @@
+package com.scratchgame.enums;
+
+public enum AreaRuleTypeEnum {
+    rows, columns, diagonals, windows, clusters
+}
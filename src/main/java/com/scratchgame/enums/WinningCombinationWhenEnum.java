@@ -0,0 +1,5 @@
+package com.scratchgame.enums;
+
+public enum WinningCombinationWhenEnum {
+    same_symbols, linear_symbols
+}
@@ -0,0 +1,16 @@
+package com.scratchgame.journal;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class DailyRtp {
+    private long rounds;
+    private double total_bet;
+    private double total_reward;
+
+    public double getRtp() {
+        return total_bet > 0 ? total_reward / total_bet : 0.0;
+    }
+}
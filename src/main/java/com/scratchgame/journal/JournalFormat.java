@@ -0,0 +1,62 @@
+package com.scratchgame.journal;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.HexFormat;
+
+// Layout of the round journal: a fixed header followed by fixed-width little-endian records.
+// Header: magic, version, cells per board, record size, record count, hash of the game the rounds were played on.
+// Record: round id, seed, timestamp in epoch millis, bet, reward, applied combination mask, bonus id, one byte per cell.
+final class JournalFormat {
+    static final int MAGIC = 0x534a524e;
+    static final int VERSION = 3;
+    static final int HEADER_SIZE = 32;
+
+    static final int HEADER_MAGIC = 0;
+    static final int HEADER_VERSION = 4;
+    static final int HEADER_CELLS = 8;
+    static final int HEADER_RECORD_SIZE = 12;
+    static final int HEADER_COUNT = 16;
+    static final int HEADER_GAME_HASH = 24;
+
+    static final int ROUND_ID = 0;
+    static final int SEED = 8;
+    static final int TIMESTAMP = 16;
+    static final int BET = 24;
+    static final int REWARD = 32;
+    static final int COMBINATION_MASK = 40;
+    static final int BONUS_SYMBOL = 48;
+    static final int BOARD = 49;
+
+    static final int MAX_COMBINATIONS = Long.SIZE;
+
+    private JournalFormat() {
+    }
+
+    // Records are padded to 8 bytes so the long fields of every record stay aligned
+    static int recordSize(int cells) {
+        return (BOARD + cells + 7) & ~7;
+    }
+
+    // Game hashes are 16 hex digits, stored as the 64-bit value they spell
+    static long encodeGameHash(String gameHash) {
+        return Long.parseUnsignedLong(gameHash, 16);
+    }
+
+    static String decodeGameHash(long gameHash) {
+        return HexFormat.of().toHexDigits(gameHash);
+    }
+
+    static void checkHeader(ByteBuffer header) {
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        if (header.getInt(HEADER_MAGIC) != MAGIC) {
+            throw new IllegalArgumentException("Not a round journal");
+        }
+        if (header.getInt(HEADER_VERSION) != VERSION) {
+            throw new IllegalArgumentException("Unsupported round journal version: " + header.getInt(HEADER_VERSION));
+        }
+        if (header.getInt(HEADER_RECORD_SIZE) != recordSize(header.getInt(HEADER_CELLS))) {
+            throw new IllegalArgumentException("Corrupt round journal header");
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.scratchgame.journal;
+
+import java.nio.ByteBuffer;
+
+import static com.scratchgame.journal.JournalFormat.*;
+
+// Flyweight view of one record, read straight from the mapped journal. The reader moves it from
+// record to record, so it must not be kept beyond the callback it was handed to.
+public class JournalRecord {
+    private final int cells;
+    private ByteBuffer buffer;
+    private int offset;
+
+    JournalRecord(int cells) {
+        this.cells = cells;
+    }
+
+    void moveTo(ByteBuffer buffer, int offset) {
+        this.buffer = buffer;
+        this.offset = offset;
+    }
+
+    public long getRoundId() {
+        return buffer.getLong(offset + ROUND_ID);
+    }
+
+    public long getSeed() {
+        return buffer.getLong(offset + SEED);
+    }
+
+    public long getTimestamp() {
+        return buffer.getLong(offset + TIMESTAMP);
+    }
+
+    public double getBetAmount() {
+        return buffer.getDouble(offset + BET);
+    }
+
+    public double getReward() {
+        return buffer.getDouble(offset + REWARD);
+    }
+
+    public long getCombinationMask() {
+        return buffer.getLong(offset + COMBINATION_MASK);
+    }
+
+    public boolean hasCombination(int combinationId) {
+        return (getCombinationMask() & (1L << combinationId)) != 0;
+    }
+
+    // -1 when no bonus symbol was applied
+    public int getBonusSymbolId() {
+        return buffer.get(offset + BONUS_SYMBOL);
+    }
+
+    public int getSymbolId(int cell) {
+        return buffer.get(offset + BOARD + cell);
+    }
+
+    public int getCells() {
+        return cells;
+    }
+}
@@ -0,0 +1,159 @@
+package com.scratchgame.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.function.Consumer;
+
+import static com.scratchgame.journal.JournalFormat.*;
+
+// Scans the records committed when the journal was opened, reading fields in place from read-only
+// mappings without decoding records into objects.
+public class RoundJournalReader implements Closeable {
+    // Largest region mapped at once, rounded down to whole records
+    private static final long REGION_BYTES = 1L << 30;
+
+    private final FileChannel channel;
+    private final int cells;
+    private final int recordSize;
+    private final long count;
+    private final String gameHash;
+    private final int regionRecords;
+    private final MappedByteBuffer[] regions;
+
+    public RoundJournalReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            checkHeader(header);
+            this.cells = header.getInt(HEADER_CELLS);
+            this.recordSize = header.getInt(HEADER_RECORD_SIZE);
+            this.count = header.getLong(HEADER_COUNT);
+            this.gameHash = decodeGameHash(header.getLong(HEADER_GAME_HASH));
+        } catch (RuntimeException | IOException e) {
+            channel.close();
+            throw e;
+        }
+
+        this.regionRecords = (int) (REGION_BYTES / recordSize);
+        this.regions = new MappedByteBuffer[(int) ((count + regionRecords - 1) / regionRecords)];
+        for (int i = 0; i < regions.length; i++) {
+            long first = (long) i * regionRecords;
+            long records = Math.min(regionRecords, count - first);
+            regions[i] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + first * recordSize, records * recordSize);
+            regions[i].order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    public long size() {
+        return count;
+    }
+
+    public int getCells() {
+        return cells;
+    }
+
+    // Hash of the game the rounds were played on, replaying their seeds needs a game with the same hash
+    public String getGameHash() {
+        return gameHash;
+    }
+
+    // Positions a new flyweight on one record
+    public JournalRecord get(long index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Record " + index + " of " + count);
+        }
+        JournalRecord record = new JournalRecord(cells);
+        record.moveTo(regions[(int) (index / regionRecords)], (int) (index % regionRecords) * recordSize);
+        return record;
+    }
+
+    // Hands the same flyweight to the consumer for every record, in journal order
+    public void scan(Consumer<JournalRecord> consumer) {
+        JournalRecord record = new JournalRecord(cells);
+        for (MappedByteBuffer region : regions) {
+            int end = region.limit();
+            for (int offset = 0; offset < end; offset += recordSize) {
+                record.moveTo(region, offset);
+                consumer.accept(record);
+            }
+        }
+    }
+
+    public SortedMap<LocalDate, DailyRtp> rtpByDay(ZoneId zone) {
+        SortedMap<LocalDate, DailyRtp> days = new TreeMap<>();
+        DayWindow window = new DayWindow(zone);
+        scan(record -> {
+            // Consecutive records almost always fall on the same day, so the bucket is only looked up again
+            // when a timestamp leaves the bounds of the current day
+            long timestamp = record.getTimestamp();
+            if (!window.contains(timestamp)) {
+                window.moveTo(timestamp);
+                window.day = days.computeIfAbsent(window.date, date -> new DailyRtp());
+            }
+            DailyRtp day = window.day;
+            day.setRounds(day.getRounds() + 1);
+            day.setTotal_bet(day.getTotal_bet() + record.getBetAmount());
+            day.setTotal_reward(day.getTotal_reward() + record.getReward());
+        });
+        return days;
+    }
+
+    // Largest rewards first. Only records beating the current n-th best are copied out of the journal.
+    public List<TopWin> topWins(int n) {
+        if (n < 1) {
+            throw new IllegalArgumentException("Number of top wins must be positive");
+        }
+
+        PriorityQueue<TopWin> best = new PriorityQueue<>(n, Comparator.comparingDouble(TopWin::getReward));
+        scan(record -> {
+            if (best.size() < n) {
+                best.add(new TopWin(record));
+            } else if (record.getReward() > best.peek().getReward()) {
+                best.poll();
+                best.add(new TopWin(record));
+            }
+        });
+
+        List<TopWin> wins = new ArrayList<>(best);
+        wins.sort(Comparator.comparingDouble(TopWin::getReward).reversed());
+        return wins;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static class DayWindow {
+        private final ZoneId zone;
+        private long start = Long.MAX_VALUE;
+        private long end = Long.MIN_VALUE;
+        private LocalDate date;
+        private DailyRtp day;
+
+        DayWindow(ZoneId zone) {
+            this.zone = zone;
+        }
+
+        boolean contains(long timestamp) {
+            return timestamp >= start && timestamp < end;
+        }
+
+        void moveTo(long timestamp) {
+            date = LocalDate.ofInstant(Instant.ofEpochMilli(timestamp), zone);
+            ZonedDateTime midnight = date.atStartOfDay(zone);
+            start = midnight.toInstant().toEpochMilli();
+            end = midnight.plusDays(1).toInstant().toEpochMilli();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.scratchgame.journal;
+
+import com.scratchgame.compiled.CompiledGame;
+import com.scratchgame.model.Configuration;
+import com.scratchgame.service.Board;
+import com.scratchgame.service.EvaluationContext;
+import com.scratchgame.service.RoundBatch;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static com.scratchgame.journal.JournalFormat.*;
+
+// Appends fixed-width round records through memory-mapped regions of the journal file. Opening an existing
+// journal continues after its last record. The header records the hash of the game the rounds were played
+// on, so they can be replayed from their seeds, and a journal only takes rounds of one game. Not thread-safe,
+// use one writer per journal.
+public class RoundJournalWriter implements Closeable, Flushable {
+    // Records mapped at once, the file grows by one region at a time
+    private static final int REGION_RECORDS = 1 << 16;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final int cells;
+    private final int recordSize;
+    private MappedByteBuffer region;
+    private long regionStart;
+    private long count;
+
+    // Rounds drawn from the configuration's default tables, like MatrixGenerator(config) draws them
+    public RoundJournalWriter(Path path, Configuration config) throws IOException {
+        this(path, CompiledGame.compile(config));
+    }
+
+    public RoundJournalWriter(Path path, CompiledGame game) throws IOException {
+        if (game.getCombinations().size() > MAX_COMBINATIONS) {
+            throw new IllegalArgumentException("Round journal supports at most " + MAX_COMBINATIONS + " win combinations");
+        }
+
+        this.cells = game.getCells();
+        this.recordSize = recordSize(cells);
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        boolean created = channel.size() == 0;
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+
+        if (created) {
+            header.putInt(HEADER_MAGIC, MAGIC);
+            header.putInt(HEADER_VERSION, VERSION);
+            header.putInt(HEADER_CELLS, cells);
+            header.putInt(HEADER_RECORD_SIZE, recordSize);
+            header.putLong(HEADER_COUNT, 0);
+            header.putLong(HEADER_GAME_HASH, encodeGameHash(game.getHash()));
+        } else {
+            checkHeader(header);
+            if (header.getInt(HEADER_CELLS) != cells) {
+                channel.close();
+                throw new IllegalArgumentException("Round journal was written for boards of " + header.getInt(HEADER_CELLS) + " cells");
+            }
+            if (header.getLong(HEADER_GAME_HASH) != encodeGameHash(game.getHash())) {
+                channel.close();
+                throw new IllegalArgumentException("Round journal was written for game "
+                        + decodeGameHash(header.getLong(HEADER_GAME_HASH)) + ", not " + game.getHash());
+            }
+        }
+        this.count = header.getLong(HEADER_COUNT);
+        this.regionStart = -1;
+    }
+
+    public void append(long roundId, long seed, long timestamp, double betAmount, Board board, EvaluationContext context) throws IOException {
+        int offset = reserve();
+        writeRound(offset, roundId, seed, timestamp, betAmount, context.getReward(), context.getAppliedBonusSymbolId());
+        long mask = 0;
+        for (int i = 0; i < context.getAppliedCount(); i++) {
+            mask |= 1L << context.getAppliedCombinationId(i);
+        }
+        region.putLong(offset + COMBINATION_MASK, mask);
+        for (int cell = 0; cell < cells; cell++) {
+            region.put(offset + BOARD + cell, (byte) board.get(cell));
+        }
+        commit();
+    }
+
+    public void append(long roundId, long seed, long timestamp, RoundBatch batch, int round) throws IOException {
+        int offset = reserve();
+        writeRound(offset, roundId, seed, timestamp, batch.getBetAmount(), batch.getReward(round), batch.getBonusSymbolId(round));
+        long mask = 0;
+        for (int i = 0; i < batch.getAppliedCount(round); i++) {
+            mask |= 1L << batch.getAppliedCombinationId(round, i);
+        }
+        region.putLong(offset + COMBINATION_MASK, mask);
+        for (int cell = 0; cell < cells; cell++) {
+            region.put(offset + BOARD + cell, (byte) batch.getSymbolId(round, cell));
+        }
+        commit();
+    }
+
+    public long size() {
+        return count;
+    }
+
+    private void writeRound(int offset, long roundId, long seed, long timestamp, double betAmount, double reward, int bonusSymbolId) {
+        region.putLong(offset + ROUND_ID, roundId);
+        region.putLong(offset + SEED, seed);
+        region.putLong(offset + TIMESTAMP, timestamp);
+        region.putDouble(offset + BET, betAmount);
+        region.putDouble(offset + REWARD, reward);
+        region.put(offset + BONUS_SYMBOL, (byte) bonusSymbolId);
+    }
+
+    // Returns the offset of the next record inside the current region, mapping the next region when needed
+    private int reserve() throws IOException {
+        if (regionStart < 0 || count >= regionStart + REGION_RECORDS) {
+            if (region != null) {
+                region.force();
+            }
+            regionStart = count;
+            region = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE + count * recordSize, (long) REGION_RECORDS * recordSize);
+            region.order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return (int) (count - regionStart) * recordSize;
+    }
+
+    // The record only becomes visible to readers once the count in the header includes it
+    private void commit() {
+        count++;
+        header.putLong(HEADER_COUNT, count);
+    }
+
+    @Override
+    public void flush() {
+        if (region != null) {
+            region.force();
+        }
+        header.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+}
@@ -0,0 +1,22 @@
+package com.scratchgame.journal;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class TopWin {
+    private long round_id;
+    private long seed;
+    private long timestamp;
+    private double betting_amount;
+    private double reward;
+
+    public TopWin(JournalRecord record) {
+        this.round_id = record.getRoundId();
+        this.seed = record.getSeed();
+        this.timestamp = record.getTimestamp();
+        this.betting_amount = record.getBetAmount();
+        this.reward = record.getReward();
+    }
+}
@@ -0,0 +1,205 @@
+package com.scratchgame.metrics;
+
+import com.scratchgame.compiled.SymbolTable;
+import com.scratchgame.compiled.WinCombinationTable;
+import com.scratchgame.service.GameResult;
+import com.scratchgame.service.RoundBatch;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+// Round, payout and latency counters shared by every thread playing rounds. Counters are striped adders and
+// batches are tallied locally before they are added, so recording stays off the contended path.
+// Combinations and bonus symbols are counted by name, which keeps the counts across configuration reloads.
+public class GameMetrics implements GameMetricsMXBean {
+    private final LongAdder rounds = new LongAdder();
+    private final LongAdder winningRounds = new LongAdder();
+    private final DoubleAdder totalBet = new DoubleAdder();
+    private final DoubleAdder totalReward = new DoubleAdder();
+    private final Map<String, LongAdder> combinationCounts = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> bonusCounts = new ConcurrentHashMap<>();
+    private final LatencyHistogram generateLatency = new LatencyHistogram();
+    private final LatencyHistogram evaluateLatency = new LatencyHistogram();
+
+    public void recordGenerate(long nanos) {
+        generateLatency.record(nanos);
+    }
+
+    // A batch records its mean time per round once for every round it played, an empty batch records nothing
+    public void recordGenerate(long nanos, int rounds) {
+        if (rounds > 0) {
+            generateLatency.record(nanos / rounds, rounds);
+        }
+    }
+
+    public void recordEvaluate(long nanos) {
+        evaluateLatency.record(nanos);
+    }
+
+    public void recordEvaluate(long nanos, int rounds) {
+        if (rounds > 0) {
+            evaluateLatency.record(nanos / rounds, rounds);
+        }
+    }
+
+    public void recordRound(double betAmount, GameResult result) {
+        rounds.increment();
+        totalBet.add(betAmount);
+        if (result.getReward() > 0) {
+            winningRounds.increment();
+            totalReward.add(result.getReward());
+        }
+        if (result.getApplied_winning_combinations() != null) {
+            for (List<String> combinations : result.getApplied_winning_combinations().values()) {
+                for (String combination : combinations) {
+                    counter(combinationCounts, combination).increment();
+                }
+            }
+        }
+        if (result.getApplied_bonus_symbol() != null) {
+            counter(bonusCounts, result.getApplied_bonus_symbol()).increment();
+        }
+    }
+
+    public void recordBatch(RoundBatch batch, SymbolTable symbols, WinCombinationTable combinations) {
+        int[] combinationTally = new int[combinations.size()];
+        int[] bonusTally = new int[symbols.size()];
+        int wins = 0;
+        for (int round = 0; round < batch.size(); round++) {
+            if (batch.getReward(round) > 0) {
+                wins++;
+            }
+            for (int i = 0; i < batch.getAppliedCount(round); i++) {
+                combinationTally[batch.getAppliedCombinationId(round, i)]++;
+            }
+            if (batch.getBonusSymbolId(round) >= 0) {
+                bonusTally[batch.getBonusSymbolId(round)]++;
+            }
+        }
+
+        rounds.add(batch.size());
+        winningRounds.add(wins);
+        totalBet.add(batch.getBetAmount() * batch.size());
+        totalReward.add(batch.getTotalReward());
+        for (int combination = 0; combination < combinationTally.length; combination++) {
+            if (combinationTally[combination] > 0) {
+                counter(combinationCounts, combinations.getName(combination)).add(combinationTally[combination]);
+            }
+        }
+        for (int symbolId = 0; symbolId < bonusTally.length; symbolId++) {
+            if (bonusTally[symbolId] > 0) {
+                counter(bonusCounts, symbols.name(symbolId)).add(bonusTally[symbolId]);
+            }
+        }
+    }
+
+    private static LongAdder counter(Map<String, LongAdder> counters, String name) {
+        LongAdder counter = counters.get(name);
+        return counter != null ? counter : counters.computeIfAbsent(name, k -> new LongAdder());
+    }
+
+    @Override
+    public long getRounds() {
+        return rounds.sum();
+    }
+
+    @Override
+    public long getWinningRounds() {
+        return winningRounds.sum();
+    }
+
+    @Override
+    public double getHitRate() {
+        long played = rounds.sum();
+        return played > 0 ? (double) winningRounds.sum() / played : 0.0;
+    }
+
+    @Override
+    public double getTotalBet() {
+        return totalBet.sum();
+    }
+
+    @Override
+    public double getTotalReward() {
+        return totalReward.sum();
+    }
+
+    @Override
+    public double getRtp() {
+        double bet = totalBet.sum();
+        return bet > 0 ? totalReward.sum() / bet : 0.0;
+    }
+
+    @Override
+    public Map<String, Long> getCombinationCounts() {
+        return snapshot(combinationCounts);
+    }
+
+    @Override
+    public Map<String, Long> getBonusCounts() {
+        return snapshot(bonusCounts);
+    }
+
+    private static Map<String, Long> snapshot(Map<String, LongAdder> counters) {
+        Map<String, Long> snapshot = new TreeMap<>();
+        counters.forEach((name, counter) -> snapshot.put(name, counter.sum()));
+        return snapshot;
+    }
+
+    @Override
+    public double getGenerateMeanNanos() {
+        return generateLatency.getMean();
+    }
+
+    @Override
+    public long getGenerateP50Nanos() {
+        return generateLatency.getValueAtPercentile(50);
+    }
+
+    @Override
+    public long getGenerateP99Nanos() {
+        return generateLatency.getValueAtPercentile(99);
+    }
+
+    @Override
+    public double getEvaluateMeanNanos() {
+        return evaluateLatency.getMean();
+    }
+
+    @Override
+    public long getEvaluateP50Nanos() {
+        return evaluateLatency.getValueAtPercentile(50);
+    }
+
+    @Override
+    public long getEvaluateP99Nanos() {
+        return evaluateLatency.getValueAtPercentile(99);
+    }
+
+    @Override
+    public void reset() {
+        rounds.reset();
+        winningRounds.reset();
+        totalBet.reset();
+        totalReward.reset();
+        combinationCounts.clear();
+        bonusCounts.clear();
+        generateLatency.reset();
+        evaluateLatency.reset();
+    }
+
+    // One line summary for the periodic dump
+    public String snapshot() {
+        return String.format("rounds=%d hit_rate=%.4f rtp=%.4f bet=%.2f reward=%.2f "
+                        + "generate_ns(mean=%.0f p50=%d p99=%d) evaluate_ns(mean=%.0f p50=%d p99=%d) "
+                        + "combinations=%s bonuses=%s",
+                getRounds(), getHitRate(), getRtp(), getTotalBet(), getTotalReward(),
+                getGenerateMeanNanos(), getGenerateP50Nanos(), getGenerateP99Nanos(),
+                getEvaluateMeanNanos(), getEvaluateP50Nanos(), getEvaluateP99Nanos(),
+                getCombinationCounts(), getBonusCounts());
+    }
+}
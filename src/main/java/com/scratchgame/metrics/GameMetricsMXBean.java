@@ -0,0 +1,36 @@
+package com.scratchgame.metrics;
+
+import java.util.Map;
+
+// Live view of the engine exposed over JMX, latencies are in nanoseconds per round
+public interface GameMetricsMXBean {
+    long getRounds();
+
+    long getWinningRounds();
+
+    double getHitRate();
+
+    double getTotalBet();
+
+    double getTotalReward();
+
+    double getRtp();
+
+    Map<String, Long> getCombinationCounts();
+
+    Map<String, Long> getBonusCounts();
+
+    double getGenerateMeanNanos();
+
+    long getGenerateP50Nanos();
+
+    long getGenerateP99Nanos();
+
+    double getEvaluateMeanNanos();
+
+    long getEvaluateP50Nanos();
+
+    long getEvaluateP99Nanos();
+
+    void reset();
+}
@@ -0,0 +1,64 @@
+package com.scratchgame.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.Closeable;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Publishes metrics as an MXBean on the platform MBean server and optionally prints a snapshot line
+// at a fixed interval. Closing unregisters the bean and stops the dump.
+public class MetricsReporter implements Closeable {
+    public static final String OBJECT_NAME = "com.scratchgame:type=GameMetrics";
+
+    private final GameMetrics metrics;
+    private final ObjectName name;
+    private final ScheduledExecutorService scheduler;
+
+    // A zero interval only registers the bean
+    public MetricsReporter(GameMetrics metrics, Duration interval, PrintStream out) {
+        this.metrics = metrics;
+        try {
+            this.name = new ObjectName(OBJECT_NAME);
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(metrics, name);
+        } catch (JMException e) {
+            throw new IllegalStateException("Metrics could not be registered: " + e.getMessage(), e);
+        }
+
+        if (interval.isZero()) {
+            this.scheduler = null;
+        } else {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().daemon().name("metrics-reporter").factory());
+            long millis = interval.toMillis();
+            scheduler.scheduleAtFixedRate(() -> out.println(Instant.now() + " " + metrics.snapshot()),
+                    millis, millis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public GameMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        } catch (JMException e) {
+            // Already unregistered
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.scratchgame.model;
+
+import lombok.Getter;
+import lombok.Setter;
+
+// Generates linear_symbols areas: rows, columns and diagonals span the board, windows are runs of length
+// cells along rows, columns and both diagonals, clusters are orthogonally connected groups of at least length cells
+@Getter
+@Setter
+public class AreaRule {
+    private String type;
+    private Integer length;
+}
@@ -14,4 +14,5 @@ public class WinningCombination {
     private Integer count;
     private String group;
     private List<List<String>> covered_areas;
+    private List<AreaRule> area_rules;
 }
@@ -0,0 +1,27 @@
+package com.scratchgame.random;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+// Hands out the generator the calling thread should draw from, so a single compiled MatrixGenerator can
+// be shared by many threads without them contending on one seed.
+@FunctionalInterface
+public interface RandomSource {
+    String DEFAULT_ALGORITHM = "L64X128MixRandom";
+
+    RandomGenerator current();
+
+    // Always the given generator, only safe to share when the generator itself is
+    static RandomSource of(RandomGenerator random) {
+        return () -> random;
+    }
+
+    // Unseeded per-thread streams without any shared state
+    static RandomSource threadLocal() {
+        return ThreadLocalRandom::current;
+    }
+
+    static SplittableRandomSource seeded(long seed) {
+        return new SplittableRandomSource(DEFAULT_ALGORITHM, seed);
+    }
+}
@@ -0,0 +1,38 @@
+package com.scratchgame.random;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+// Counter-based seeding: the stream of a round is a pure function of (master seed, round id),
+// so any round can be regenerated in constant time without replaying the rounds before it.
+public final class RoundSeeds {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final long masterSeed;
+
+    public RoundSeeds(long masterSeed) {
+        this.masterSeed = masterSeed;
+    }
+
+    public long seedOf(long roundId) {
+        if (roundId < 0) {
+            throw new IllegalArgumentException("Round id must not be negative");
+        }
+        return mix64(mix64(masterSeed) + (roundId + 1) * GOLDEN_GAMMA);
+    }
+
+    public RandomGenerator random(long roundId) {
+        return new SplittableRandom(seedOf(roundId));
+    }
+
+    public long getMasterSeed() {
+        return masterSeed;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
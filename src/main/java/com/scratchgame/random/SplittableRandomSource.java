@@ -0,0 +1,47 @@
+package com.scratchgame.random;
+
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+// Seeded per-thread streams split off one root generator. A thread splits its stream the first time it
+// draws, so the streams only depend on the seed and the order in which threads first draw. Workers that
+// must be reproducible regardless of scheduling should each take their own source from split() up front.
+public class SplittableRandomSource implements RandomSource {
+    private final SplittableGenerator root;
+    private final ThreadLocal<RandomGenerator> streams = ThreadLocal.withInitial(this::splitGenerator);
+
+    public SplittableRandomSource(String algorithm, long seed) {
+        this(create(algorithm, seed));
+    }
+
+    public SplittableRandomSource(SplittableGenerator root) {
+        this.root = root;
+    }
+
+    @Override
+    public RandomGenerator current() {
+        return streams.get();
+    }
+
+    public SplittableRandomSource split() {
+        return new SplittableRandomSource(splitGenerator());
+    }
+
+    private synchronized SplittableGenerator splitGenerator() {
+        return root.split();
+    }
+
+    private static SplittableGenerator create(String algorithm, long seed) {
+        RandomGeneratorFactory<RandomGenerator> factory;
+        try {
+            factory = RandomGeneratorFactory.of(algorithm);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown random algorithm: " + algorithm);
+        }
+        if (!factory.isSplittable()) {
+            throw new IllegalArgumentException("Random algorithm is not splittable: " + algorithm);
+        }
+        return (SplittableGenerator) factory.create(seed);
+    }
+}
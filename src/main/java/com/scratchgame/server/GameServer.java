@@ -0,0 +1,209 @@
+package com.scratchgame.server;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scratchgame.compiled.CompiledGame;
+import com.scratchgame.metrics.GameMetrics;
+import com.scratchgame.model.Configuration;
+import com.scratchgame.random.RandomSource;
+import com.scratchgame.random.RoundSeeds;
+import com.scratchgame.service.*;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+// Serves rounds over HTTP from a compiled configuration. Every request runs on its own virtual thread and
+// only allocates its own evaluation state, the generator and evaluator are shared. A reload swaps them as
+// one snapshot, so a request in flight finishes on the configuration it started with. Seeded rounds are
+// returned with the hash of the game they were played on, since a reload keeps counting round ids.
+public class GameServer {
+    private static final int MAX_BATCH = 100_000;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Long seed;
+    private final RoundSeeds seeds;
+    // Unseeded rounds only, seeded rounds draw from the stream of their round id
+    private final RandomSource random;
+    private volatile Engine engine;
+    private final AtomicLong nextRound;
+    private final GameMetrics metrics;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public GameServer(Configuration config, InetSocketAddress address) throws IOException {
+        this(CompiledGame.compile(config), address, null, 0);
+    }
+
+    // With a seed every round gets an id starting at firstRound and can be replayed from (seed, id) on the
+    // game with the returned hash. A batch reserves consecutive ids and gives each round its own stream.
+    public GameServer(CompiledGame game, InetSocketAddress address, Long seed, long firstRound) throws IOException {
+        this.seed = seed;
+        this.seeds = seed != null ? new RoundSeeds(seed) : null;
+        this.random = RandomSource.threadLocal();
+        this.engine = new Engine(game);
+        this.nextRound = new AtomicLong(firstRound);
+        this.metrics = new GameMetrics();
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.server = HttpServer.create(address, 0);
+        server.setExecutor(executor);
+        server.createContext("/play", this::handlePlay);
+        server.createContext("/play/batch", this::handleBatch);
+    }
+
+    public void reload(CompiledGame game) {
+        engine = new Engine(game);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    public GameMetrics getMetrics() {
+        return metrics;
+    }
+
+    private void handlePlay(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            PlayRequest request = readRequest(exchange);
+            if (request == null) {
+                return;
+            }
+
+            Engine engine = this.engine;
+            long start = System.nanoTime();
+            Board board;
+            if (engine.replayer != null) {
+                long roundId = nextRound.getAndIncrement();
+                board = engine.replayer.generateBoard(roundId);
+                exchange.getResponseHeaders().set("X-Round-Id", Long.toString(roundId));
+                exchange.getResponseHeaders().set("X-Game-Hash", engine.hash);
+                exchange.getResponseHeaders().set("X-Sampler", engine.sampler);
+            } else {
+                board = engine.generator.generateBoard();
+            }
+            long generated = System.nanoTime();
+            GameResult result = engine.evaluator.evaluate(board, request.getBetting_amount());
+            metrics.recordGenerate(generated - start);
+            metrics.recordEvaluate(System.nanoTime() - generated);
+            metrics.recordRound(request.getBetting_amount(), result);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, 0);
+            try (GameResultWriter writer = new GameResultWriter(exchange.getResponseBody(), GameResultWriter.Format.COMPACT)) {
+                writer.write(result);
+            }
+        }
+    }
+
+    private void handleBatch(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            PlayRequest request = readRequest(exchange);
+            if (request == null) {
+                return;
+            }
+            if (request.getCount() < 1 || request.getCount() > MAX_BATCH) {
+                sendError(exchange, 400, "count must be between 1 and " + MAX_BATCH);
+                return;
+            }
+
+            // Rounds are streamed as NDJSON while they are played, so the response is never held in memory
+            Engine engine = this.engine;
+            BatchPlayer player = new BatchPlayer(engine.generator, engine.evaluator, metrics);
+            exchange.getResponseHeaders().set("Content-Type", "application/x-ndjson");
+            // Seeded rounds reserve their ids up front, concurrent requests never interleave them
+            long firstRound = seeds != null ? nextRound.getAndAdd(request.getCount()) : -1;
+            if (seeds != null) {
+                exchange.getResponseHeaders().set("X-Game-Hash", engine.hash);
+                exchange.getResponseHeaders().set("X-Sampler", engine.sampler);
+            }
+            exchange.sendResponseHeaders(200, 0);
+            try (GameResultWriter writer = new GameResultWriter(exchange.getResponseBody(), GameResultWriter.Format.NDJSON)) {
+                long[] nextId = {firstRound};
+                Consumer<RoundBatch> write = batch -> {
+                    try {
+                        for (int round = 0; round < batch.size(); round++) {
+                            player.write(round, seeds != null ? nextId[0]++ : -1, writer);
+                        }
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                };
+                if (seeds != null) {
+                    player.playBatch(seeds, firstRound, request.getCount(), request.getBetting_amount(), write);
+                } else {
+                    player.playBatch(request.getCount(), request.getBetting_amount(), write);
+                }
+            }
+        }
+    }
+
+    // Returns null when the request was rejected and an error response has already been sent
+    private PlayRequest readRequest(HttpExchange exchange) throws IOException {
+        // Contexts match by prefix, only the exact path of the handler is served
+        if (!exchange.getHttpContext().getPath().equals(exchange.getRequestURI().getPath())) {
+            sendError(exchange, 404, "No such endpoint: " + exchange.getRequestURI().getPath());
+            return null;
+        }
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            exchange.getResponseHeaders().set("Allow", "POST");
+            sendError(exchange, 405, "Only POST is supported");
+            return null;
+        }
+
+        PlayRequest request;
+        try (InputStream body = exchange.getRequestBody()) {
+            byte[] content = body.readAllBytes();
+            request = content.length > 0 ? MAPPER.readValue(content, PlayRequest.class) : new PlayRequest();
+        } catch (IOException e) {
+            sendError(exchange, 400, "Invalid request body: " + e.getMessage());
+            return null;
+        }
+        if (request.getBetting_amount() < 0) {
+            sendError(exchange, 400, "betting_amount must not be negative");
+            return null;
+        }
+        return request;
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        byte[] body = MAPPER.writeValueAsString(Map.of("error", message)).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private class Engine {
+        private final MatrixGenerator generator;
+        private final GameEvaluator evaluator;
+        private final RoundReplayer replayer;
+        private final String hash;
+        private final String sampler;
+
+        Engine(CompiledGame game) {
+            this.generator = new MatrixGenerator(game, random);
+            this.evaluator = new GameEvaluator(game);
+            this.replayer = seed != null ? new RoundReplayer(game, seed) : null;
+            this.hash = game.getHash();
+            this.sampler = game.getSampler();
+        }
+    }
+}
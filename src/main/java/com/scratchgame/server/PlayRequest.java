@@ -0,0 +1,11 @@
+package com.scratchgame.server;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class PlayRequest {
+    private double betting_amount;
+    private int count = 1;
+}
@@ -0,0 +1,148 @@
+package com.scratchgame.service;
+
+import com.scratchgame.compiled.CompiledGame;
+import com.scratchgame.compiled.SymbolTable;
+import com.scratchgame.metrics.GameMetrics;
+import com.scratchgame.model.Configuration;
+import com.scratchgame.random.RandomSource;
+import com.scratchgame.random.RoundSeeds;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.random.RandomGenerator;
+
+// Plays many rounds per call on one compiled generator and evaluator. Not thread-safe, use one player per thread.
+public class BatchPlayer {
+    // Rounds buffered per callback in the streaming variant
+    private static final int STREAM_CHUNK = 4096;
+
+    private final int cells;
+    private final MatrixGenerator generator;
+    private final GameEvaluator evaluator;
+    private final EvaluationContext context;
+    private final RoundBatch batch;
+    private final GameMetrics metrics;
+
+    public BatchPlayer(Configuration config) {
+        this(config, new Random());
+    }
+
+    public BatchPlayer(Configuration config, RandomGenerator random) {
+        this(new MatrixGenerator(config, random), null, config, null);
+    }
+
+    public BatchPlayer(CompiledGame game, RandomGenerator random) {
+        this(new MatrixGenerator(game, RandomSource.of(random)), new GameEvaluator(game));
+    }
+
+    // Shares an already compiled generator and evaluator, only the batch buffer and context are per player.
+    // Concurrent players need a generator backed by a per-thread random source.
+    public BatchPlayer(MatrixGenerator generator, GameEvaluator evaluator) {
+        this(generator, evaluator, null, null);
+    }
+
+    // Records every batch into the given metrics
+    public BatchPlayer(MatrixGenerator generator, GameEvaluator evaluator, GameMetrics metrics) {
+        this(generator, evaluator, null, metrics);
+    }
+
+    private BatchPlayer(MatrixGenerator generator, GameEvaluator evaluator, Configuration config, GameMetrics metrics) {
+        this.cells = generator.getRows() * generator.getColumns();
+        this.generator = generator;
+        this.evaluator = evaluator != null ? evaluator : new GameEvaluator(config, generator.getSymbols());
+        this.context = this.evaluator.newContext(cells);
+        this.batch = new RoundBatch(generator.getRows(), generator.getColumns(), STREAM_CHUNK);
+        this.metrics = metrics;
+    }
+
+    // The returned buffer belongs to the player and is overwritten by the next call
+    public RoundBatch playBatch(int count, double betAmount) {
+        play(count, betAmount);
+        return batch;
+    }
+
+    // Plays the rounds in fixed-size chunks, handing each filled chunk to the consumer before reusing the buffer
+    public void playBatch(long count, double betAmount, Consumer<RoundBatch> consumer) {
+        long remaining = count;
+        while (remaining > 0) {
+            int chunk = (int) Math.min(remaining, STREAM_CHUNK);
+            play(chunk, betAmount);
+            consumer.accept(batch);
+            remaining -= chunk;
+        }
+    }
+
+    // Plays rounds firstRound, firstRound + 1, ... each from its own stream, so every round can be replayed
+    // from (master seed, round id). Round i of a chunk is round firstRound + rounds handed out before it + i.
+    public void playBatch(RoundSeeds seeds, long firstRound, long count, double betAmount, Consumer<RoundBatch> consumer) {
+        long played = 0;
+        while (played < count) {
+            int chunk = (int) Math.min(count - played, STREAM_CHUNK);
+            play(chunk, betAmount, seeds, firstRound + played);
+            consumer.accept(batch);
+            played += chunk;
+        }
+    }
+
+    private void play(int count, double betAmount) {
+        play(count, betAmount, null, 0);
+    }
+
+    private void play(int count, double betAmount, RoundSeeds seeds, long firstRound) {
+        if (metrics == null) {
+            batch.clear(count, betAmount);
+            generate(count, seeds, firstRound);
+            evaluate(count, betAmount);
+            return;
+        }
+
+        // Timed per batch rather than per round, so the clock is read three times for thousands of rounds
+        long start = System.nanoTime();
+        batch.clear(count, betAmount);
+        generate(count, seeds, firstRound);
+        long generated = System.nanoTime();
+        evaluate(count, betAmount);
+        long evaluated = System.nanoTime();
+        metrics.recordGenerate(generated - start, count);
+        metrics.recordEvaluate(evaluated - generated, count);
+        metrics.recordBatch(batch, generator.getSymbols(), evaluator.getCombinations());
+    }
+
+    private void generate(int count, RoundSeeds seeds, long firstRound) {
+        if (seeds == null) {
+            generator.generate(batch.getBoards(), 0, count);
+            return;
+        }
+        for (int round = 0; round < count; round++) {
+            generator.generate(batch.getBoards(), batch.boardOffset(round), seeds.random(firstRound + round));
+        }
+    }
+
+    private void evaluate(int count, double betAmount) {
+        byte[] boards = batch.getBoards();
+        for (int round = 0; round < count; round++) {
+            evaluator.evaluate(boards, batch.boardOffset(round), cells, betAmount, context);
+            batch.add(context);
+        }
+    }
+
+    // Materializes one round of the last batch at the JSON boundary by re-evaluating its board
+    public GameResult toResult(int round) {
+        Board board = new Board(generator.getRows(), generator.getColumns());
+        batch.copyBoard(round, board);
+        return evaluator.evaluate(board, batch.getBetAmount());
+    }
+
+    public void write(int round, GameResultWriter writer) throws IOException {
+        writer.write(batch, round, generator.getSymbols(), evaluator.getCombinations());
+    }
+
+    public void write(int round, long roundId, GameResultWriter writer) throws IOException {
+        writer.write(batch, round, roundId, generator.getSymbols(), evaluator.getCombinations());
+    }
+
+    public SymbolTable getSymbols() {
+        return generator.getSymbols();
+    }
+}
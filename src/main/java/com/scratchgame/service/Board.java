@@ -0,0 +1,67 @@
+package com.scratchgame.service;
+
+import com.scratchgame.compiled.SymbolTable;
+
+// Flat row-major grid of symbol ids, a cell holds -1 when its symbol is unknown to the symbol table
+public class Board {
+    private final int rows;
+    private final int columns;
+    private final byte[] cells;
+
+    public Board(int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.cells = new byte[rows * columns];
+    }
+
+    public static Board fromMatrix(String[][] matrix, SymbolTable symbols) {
+        int rows = matrix.length;
+        int columns = rows > 0 ? matrix[0].length : 0;
+        Board board = new Board(rows, columns);
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < columns; col++) {
+                board.set(row * columns + col, symbols.idOf(matrix[row][col]));
+            }
+        }
+        return board;
+    }
+
+    public String[][] toMatrix(SymbolTable symbols) {
+        String[][] matrix = new String[rows][columns];
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < columns; col++) {
+                int symbolId = cells[row * columns + col];
+                matrix[row][col] = symbolId >= 0 ? symbols.name(symbolId) : null;
+            }
+        }
+        return matrix;
+    }
+
+    public int get(int cell) {
+        return cells[cell];
+    }
+
+    public int get(int row, int col) {
+        return cells[row * columns + col];
+    }
+
+    public void set(int cell, int symbolId) {
+        cells[cell] = (byte) symbolId;
+    }
+
+    byte[] cells() {
+        return cells;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int size() {
+        return cells.length;
+    }
+}
@@ -0,0 +1,37 @@
+package com.scratchgame.service;
+
+import com.scratchgame.compiled.SymbolTable;
+import com.scratchgame.compiled.WinCombinationTable;
+
+// The board-wide steps of an evaluation: counting and locating every standard symbol, and matching a symbol's
+// cells against the linear_symbols areas. Both backends fill the context identically, present symbols
+// in id order, so the choice never changes a result.
+interface EvaluationBackend {
+    // Selects the backend, "vector" needs the JVM started with --add-modules jdk.incubator.vector
+    String PROPERTY = "scratchgame.evaluator";
+
+    void scan(byte[] cells, int offset, int size, EvaluationContext context);
+
+    void matchLinear(EvaluationContext context, int symbolId, int[] bestCombinationPerGroup);
+
+    // The vector backend is used when the incubator module is available unless the property asks for scalar
+    static EvaluationBackend create(SymbolTable symbols, WinCombinationTable combinations) {
+        String backend = System.getProperty(PROPERTY, "auto");
+        boolean vectorAvailable = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+        switch (backend) {
+            case "scalar":
+                return new ScalarEvaluationBackend(symbols, combinations);
+            case "vector":
+                if (!vectorAvailable) {
+                    throw new IllegalStateException("The vector evaluator needs --add-modules jdk.incubator.vector");
+                }
+                return new VectorEvaluationBackend(symbols, combinations);
+            case "auto":
+                return vectorAvailable
+                        ? new VectorEvaluationBackend(symbols, combinations)
+                        : new ScalarEvaluationBackend(symbols, combinations);
+            default:
+                throw new IllegalArgumentException("Unknown evaluator backend: " + backend);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.scratchgame.service;
+
+import java.util.Arrays;
+
+// Working state and outcome of one evaluation, kept in primitive arrays indexed by symbol id and group id.
+// A context is created once per evaluator and thread and reused for every round, so evaluating into it
+// allocates nothing. Its contents describe the last evaluated round only.
+public class EvaluationContext {
+    final int words;
+    final int[] symbolCounts;
+    final long[] symbolOccupancy;
+    final long[] areaScratch;
+    final int[] presentSymbols;
+    int presentCount;
+    final int[] bestCombinationPerGroup;
+    final int[] appliedSymbolIds;
+    final int[] appliedCombinationIds;
+    int appliedCount;
+    int bonusSymbolId;
+    int appliedBonusSymbolId;
+    double reward;
+
+    EvaluationContext(int symbols, int groups, int words) {
+        this.words = words;
+        this.symbolCounts = new int[symbols];
+        this.symbolOccupancy = new long[symbols * words];
+        this.areaScratch = new long[2 * words];
+        this.presentSymbols = new int[symbols];
+        this.bestCombinationPerGroup = new int[groups];
+        this.appliedSymbolIds = new int[symbols * groups];
+        this.appliedCombinationIds = new int[symbols * groups];
+    }
+
+    public double getReward() {
+        return reward;
+    }
+
+    // -1 when the round did not apply a bonus symbol
+    public int getAppliedBonusSymbolId() {
+        return appliedBonusSymbolId;
+    }
+
+    public int getSymbolCount(int symbolId) {
+        return symbolCounts[symbolId];
+    }
+
+    // Applied combinations as (symbol id, combination id) pairs, grouped by symbol
+    public int getAppliedCount() {
+        return appliedCount;
+    }
+
+    public int getAppliedSymbolId(int index) {
+        return appliedSymbolIds[index];
+    }
+
+    public int getAppliedCombinationId(int index) {
+        return appliedCombinationIds[index];
+    }
+
+    int capacity() {
+        return words << 6;
+    }
+
+    void reset() {
+        // Only the symbols seen in the previous round need clearing
+        for (int i = 0; i < presentCount; i++) {
+            int symbolId = presentSymbols[i];
+            symbolCounts[symbolId] = 0;
+            Arrays.fill(symbolOccupancy, symbolId * words, (symbolId + 1) * words, 0L);
+        }
+        presentCount = 0;
+        appliedCount = 0;
+        bonusSymbolId = -1;
+        appliedBonusSymbolId = -1;
+        reward = 0.0;
+    }
+
+    // Puts the present symbols in id order. Insertion sort, a board only holds a handful of distinct symbols.
+    void sortPresentSymbols() {
+        for (int i = 1; i < presentCount; i++) {
+            int symbolId = presentSymbols[i];
+            int j = i - 1;
+            while (j >= 0 && presentSymbols[j] > symbolId) {
+                presentSymbols[j + 1] = presentSymbols[j];
+                j--;
+            }
+            presentSymbols[j + 1] = symbolId;
+        }
+    }
+}
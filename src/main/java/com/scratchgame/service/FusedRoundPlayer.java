@@ -0,0 +1,64 @@
+package com.scratchgame.service;
+
+import com.scratchgame.compiled.CellTables;
+import com.scratchgame.compiled.CompiledGame;
+import com.scratchgame.compiled.SymbolTable;
+import com.scratchgame.random.RandomSource;
+
+import java.util.random.RandomGenerator;
+
+// Single-pass rounds: counts, occupancy masks and the first bonus symbol are collected while the cells are
+// drawn, so the board is never scanned again before the combinations are looked up. The game itself plays
+// in two passes, MatrixGenerator then GameEvaluator, which measured faster. This path is kept so
+// RoundBenchmark can rerun the comparison. Draws the same boards and gives the same results as the two passes.
+public class FusedRoundPlayer {
+    private final SymbolTable symbols;
+    private final CellTables cellTables;
+    private final RandomSource random;
+    private final GameEvaluator evaluator;
+
+    public FusedRoundPlayer(CompiledGame game, RandomSource random) {
+        this.symbols = game.getSymbols();
+        this.cellTables = game.getCellTables();
+        this.random = random;
+        this.evaluator = new GameEvaluator(game);
+    }
+
+    public EvaluationContext newContext() {
+        return evaluator.newContext();
+    }
+
+    // Draws a round into the board and evaluates it, the outcome is read back from the context
+    public EvaluationContext play(Board board, double betAmount, EvaluationContext context) {
+        byte[] cells = board.cells();
+        int size = cellTables.size();
+        if (board.size() != size) {
+            throw new IllegalArgumentException("Board has " + board.size() + " cells, game has " + size);
+        }
+        if (size > context.capacity()) {
+            throw new IllegalArgumentException("Evaluation context holds at most " + context.capacity() + " cells, board has " + size);
+        }
+        context.reset();
+
+        RandomGenerator generator = random.current();
+        int words = context.words;
+        for (int cell = 0; cell < size; cell++) {
+            int symbolId = cellTables.get(cell).sample(generator);
+            cells[cell] = (byte) symbolId;
+            if (symbols.isStandard(symbolId)) {
+                if (context.symbolCounts[symbolId]++ == 0) {
+                    context.presentSymbols[context.presentCount++] = symbolId;
+                }
+                context.symbolOccupancy[symbolId * words + (cell >>> 6)] |= 1L << cell;
+            } else if (context.bonusSymbolId < 0 && symbols.isBonus(symbolId)) {
+                context.bonusSymbolId = symbolId;
+            }
+        }
+
+        // Present symbols in id order, like the backends leave them
+        context.sortPresentSymbols();
+
+        evaluator.score(cells, 0, size, betAmount, context, true);
+        return context;
+    }
+}
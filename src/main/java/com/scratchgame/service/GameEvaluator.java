@@ -1,18 +1,35 @@
 package com.scratchgame.service;
 
+import com.scratchgame.compiled.CompiledGame;
+import com.scratchgame.compiled.SymbolTable;
+import com.scratchgame.compiled.WinCombinationTable;
 import com.scratchgame.enums.SymbolImpactEnum;
-import com.scratchgame.enums.SymbolTypeEnum;
 import com.scratchgame.model.Configuration;
-import com.scratchgame.model.Symbol;
-import com.scratchgame.model.WinningCombination;
 
 import java.util.*;
 
 public class GameEvaluator {
-    private Configuration config;
+    private final int cells;
+    private final SymbolTable symbols;
+    private final WinCombinationTable combinations;
+    private final EvaluationBackend backend;
 
     public GameEvaluator(Configuration config) {
-        this.config = config;
+        this(config, SymbolTable.of(config));
+    }
+
+    public GameEvaluator(Configuration config, SymbolTable symbols) {
+        this.cells = config.getRows() * config.getColumns();
+        this.symbols = symbols;
+        this.combinations = WinCombinationTable.compile(config);
+        this.backend = EvaluationBackend.create(symbols, combinations);
+    }
+
+    public GameEvaluator(CompiledGame game) {
+        this.cells = game.getCells();
+        this.symbols = game.getSymbols();
+        this.combinations = game.getCombinations();
+        this.backend = EvaluationBackend.create(symbols, combinations);
     }
 
     public GameResult evaluate(String[][] matrix, double betAmount) {
@@ -22,116 +39,126 @@ public class GameEvaluator {
             return new GameResult(matrix, 0.0, new HashMap<>(), null);
         }
 
-        Map<String, Integer> symbolCounts = new HashMap<>();
-        Map<String, List<String>> symbolPositions = new HashMap<>();
+        GameResult result = evaluate(Board.fromMatrix(matrix, symbols), betAmount);
+        // Keep the caller's matrix so symbols unknown to the configuration are reported as given
+        result.setMatrix(matrix);
+        return result;
+    }
+
+    public GameResult evaluate(Board board, double betAmount) {
+        EvaluationContext context = newContext(board.size());
+        evaluate(board.cells(), 0, board.size(), betAmount, context);
+
         Map<String, List<String>> appliedWinningCombinations = new HashMap<>();
-        Map<String, Double> symbolRewards = new HashMap<>();
-
-        int rows = matrix.length;
-        int columns = matrix[0].length;
-
-        // Collect counts and positions of standard symbols
-        for (int row = 0; row < rows; row++) {
-            for (int col = 0; col < columns; col++) {
-                String symbol = matrix[row][col];
-                Symbol symbolConfig = config.getSymbols().get(symbol);
-                if (symbolConfig != null && symbolConfig.getType().equals(SymbolTypeEnum.standard)) {
-                    symbolCounts.put(symbol, symbolCounts.getOrDefault(symbol, 0) + 1);
-                    String position = row + ":" + col;
-                    symbolPositions.computeIfAbsent(symbol, k -> new ArrayList<>()).add(position);
-                }
-            }
+        for (int i = 0; i < context.appliedCount; i++) {
+            appliedWinningCombinations
+                    .computeIfAbsent(symbols.name(context.appliedSymbolIds[i]), k -> new ArrayList<>())
+                    .add(combinations.getName(context.appliedCombinationIds[i]));
         }
+        String appliedBonusSymbol = context.appliedBonusSymbolId >= 0 ? symbols.name(context.appliedBonusSymbolId) : null;
 
-        // For each symbol, find applicable winning combinations
-        for (String symbol : symbolCounts.keySet()) {
-            List<String> symbolAppliedWins = new ArrayList<>();
-            Map<String, WinningCombination> highestRewardCombosPerGroup = new HashMap<>();
-
-            for (WinningCombination winCombo : config.getWin_combinations().values()) {
-                String group = winCombo.getGroup();
-                WinningCombination existingCombo = highestRewardCombosPerGroup.get(group);
-
-                boolean matches = false;
-
-                if (winCombo.getWhen().equals("same_symbols")) {
-                    int count = symbolCounts.get(symbol);
-                    if (count >= winCombo.getCount()) {
-                        matches = true;
-                    }
-                } else if (winCombo.getWhen().equals("linear_symbols")) {
-                    for (List<String> area : winCombo.getCovered_areas()) {
-                        boolean match = true;
-                        for (String pos : area) {
-                            if (!symbolPositions.getOrDefault(symbol, Collections.emptyList()).contains(pos)) {
-                                match = false;
-                                break;
-                            }
-                        }
-                        if (match) {
-                            matches = true;
-                            break;
-                        }
-                    }
-                }
+        return new GameResult(board, symbols, context.reward, appliedWinningCombinations, appliedBonusSymbol);
+    }
 
-                if (matches) {
-                    if (existingCombo == null || winCombo.getReward_multiplier() > existingCombo.getReward_multiplier()) {
-                        highestRewardCombosPerGroup.put(group, winCombo);
-                    }
-                }
+    // Creates a context for boards of the configured size, to be reused by one thread
+    public EvaluationContext newContext() {
+        return newContext(cells);
+    }
+
+    EvaluationContext newContext(int cells) {
+        int words = Math.max(combinations.getWords(), WinCombinationTable.wordsFor(cells));
+        return new EvaluationContext(symbols.size(), combinations.getGroupCount(), words);
+    }
+
+    // Garbage-free evaluation, the outcome is read back from the context
+    public EvaluationContext evaluate(Board board, double betAmount, EvaluationContext context) {
+        evaluate(board.cells(), 0, board.size(), betAmount, context);
+        return context;
+    }
+
+    void evaluate(byte[] cells, int offset, int size, double betAmount, EvaluationContext context) {
+        if (size > context.capacity()) {
+            throw new IllegalArgumentException("Evaluation context holds at most " + context.capacity() + " cells, board has " + size);
+        }
+        context.reset();
+        backend.scan(cells, offset, size, context);
+        score(cells, offset, size, betAmount, context, false);
+    }
+
+    // Everything after the scan. With bonusScanned the caller has already stored the board's first bonus
+    // symbol, or -1, in the context, and the board is not searched for one again.
+    void score(byte[] cells, int offset, int size, double betAmount, EvaluationContext context, boolean bonusScanned) {
+        // For each symbol, find the highest paying matching combination of every group. same_symbols tiers
+        // are looked up by count, the linear_symbols areas are matched by the backend. Symbols with fewer
+        // cells than the smallest tier or area are skipped, so most losing boards end right after the scan.
+        int[] bestCombinationPerGroup = context.bestCombinationPerGroup;
+        int[] sameSymbolsGroups = combinations.getSameSymbolsGroups();
+        int minWinningCount = combinations.getMinWinningCount();
+        int minLinearCount = combinations.getMinLinearCount();
+        double totalReward = 0.0;
+        for (int i = 0; i < context.presentCount; i++) {
+            int symbolId = context.presentSymbols[i];
+            int count = context.symbolCounts[symbolId];
+            if (count < minWinningCount) {
+                continue;
+            }
+            Arrays.fill(bestCombinationPerGroup, -1);
+
+            for (int group = 0; group < sameSymbolsGroups.length; group++) {
+                bestCombinationPerGroup[sameSymbolsGroups[group]] = combinations.getBestSameSymbols(group, count);
+            }
+            if (count >= minLinearCount) {
+                backend.matchLinear(context, symbolId, bestCombinationPerGroup);
             }
 
             // Collect the selected winning combinations
+            boolean won = false;
             double rewardMultiplier = 1.0;
-            for (WinningCombination combo : highestRewardCombosPerGroup.values()) {
-                symbolAppliedWins.add(combo.getName());
-                rewardMultiplier *= combo.getReward_multiplier();
+            for (int group = 0; group < bestCombinationPerGroup.length; group++) {
+                int combination = bestCombinationPerGroup[group];
+                if (combination >= 0) {
+                    won = true;
+                    rewardMultiplier *= combinations.getMultiplier(combination);
+                    context.appliedSymbolIds[context.appliedCount] = symbolId;
+                    context.appliedCombinationIds[context.appliedCount++] = combination;
+                }
             }
-            if (!symbolAppliedWins.isEmpty()) {
-                appliedWinningCombinations.put(symbol, symbolAppliedWins);
-                // Calculate symbol reward
-                double symbolReward = betAmount * config.getSymbols().get(symbol).getReward_multiplier() * rewardMultiplier;
-                symbolRewards.put(symbol, symbolReward);
+            if (won) {
+                totalReward += betAmount * symbols.rewardMultiplier(symbolId) * rewardMultiplier;
             }
         }
 
-        // Sum up rewards
-        double totalReward = symbolRewards.values().stream().mapToDouble(Double::doubleValue).sum();
-
-        // Apply bonus symbol if any
-        String appliedBonusSymbol = null;
-        String bonusSymbol = findBonusSymbol(matrix);
-        if (bonusSymbol != null && totalReward > 0) {
-            Symbol bonusSymbolConfig = config.getSymbols().get(bonusSymbol);
-            if (bonusSymbolConfig != null && bonusSymbolConfig.getType().equals(SymbolTypeEnum.bonus)) {
-                appliedBonusSymbol = bonusSymbol;
-                SymbolImpactEnum impact = bonusSymbolConfig.getImpact();
-                if (impact.equals(SymbolImpactEnum.multiply_reward)) {
-                    totalReward *= bonusSymbolConfig.getReward_multiplier();
-                } else if (impact.equals(SymbolImpactEnum.extra_bonus)) {
-                    totalReward += bonusSymbolConfig.getExtra();
-                } else if (impact.equals(SymbolImpactEnum.miss)) {
-                    // Do nothing
-                }
+        // Apply bonus symbol if any, only winning boards are searched for one
+        int bonusSymbolId = totalReward <= 0 ? -1
+                : bonusScanned ? context.bonusSymbolId : findBonusSymbol(cells, offset, size);
+        context.bonusSymbolId = bonusSymbolId;
+        if (bonusSymbolId >= 0) {
+            context.appliedBonusSymbolId = bonusSymbolId;
+            SymbolImpactEnum impact = symbols.impact(bonusSymbolId);
+            if (impact == SymbolImpactEnum.multiply_reward) {
+                totalReward *= symbols.rewardMultiplier(bonusSymbolId);
+            } else if (impact == SymbolImpactEnum.extra_bonus) {
+                totalReward += symbols.extra(bonusSymbolId);
             }
         }
-
-        return new GameResult(matrix, totalReward, appliedWinningCombinations, appliedBonusSymbol);
+        context.reward = totalReward;
     }
 
-    private String findBonusSymbol(String[][] matrix) {
-        int rows = matrix.length;
-        int columns = matrix[0].length;
-        for (int row = 0; row < rows; row++) {
-            for (int col = 0; col < columns; col++) {
-                String symbol = matrix[row][col];
-                Symbol symbolConfig = config.getSymbols().get(symbol);
-                if (symbolConfig != null && symbolConfig.getType().equals(SymbolTypeEnum.bonus)) {
-                    return symbol;
-                }
+    private int findBonusSymbol(byte[] cells, int offset, int size) {
+        for (int cell = 0; cell < size; cell++) {
+            int symbolId = cells[offset + cell];
+            if (symbolId >= 0 && symbols.isBonus(symbolId)) {
+                return symbolId;
             }
         }
-        return null;
+        return -1;
+    }
+
+    public SymbolTable getSymbols() {
+        return symbols;
+    }
+
+    public WinCombinationTable getCombinations() {
+        return combinations;
     }
 }
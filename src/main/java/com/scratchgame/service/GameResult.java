@@ -1,7 +1,7 @@
 package com.scratchgame.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.scratchgame.compiled.SymbolTable;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -15,6 +15,10 @@ public class GameResult {
     private double reward;
     private Map<String, List<String>> applied_winning_combinations;
     private String applied_bonus_symbol;
+    @JsonIgnore
+    private Board board;
+    @JsonIgnore
+    private SymbolTable symbols;
 
     public GameResult(String[][] matrix, double reward, Map<String, List<String>> appliedWinningCombinations, String appliedBonusSymbol) {
         this.matrix = matrix;
@@ -23,8 +27,21 @@ public class GameResult {
         this.applied_bonus_symbol = appliedBonusSymbol;
     }
 
+    public GameResult(Board board, SymbolTable symbols, double reward, Map<String, List<String>> appliedWinningCombinations, String appliedBonusSymbol) {
+        this((String[][]) null, reward, appliedWinningCombinations, appliedBonusSymbol);
+        this.board = board;
+        this.symbols = symbols;
+    }
+
+    public String[][] getMatrix() {
+        // Symbol names are only materialized when the result leaves the engine
+        if (matrix == null && board != null) {
+            matrix = board.toMatrix(symbols);
+        }
+        return matrix;
+    }
+
     public String toJson() throws Exception {
-        ObjectWriter ow = new ObjectMapper().writer().withDefaultPrettyPrinter();
-        return ow.writeValueAsString(this);
+        return GameResultWriter.toJson(this, GameResultWriter.Format.PRETTY);
     }
 }
@@ -0,0 +1,185 @@
+package com.scratchgame.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.scratchgame.compiled.SymbolTable;
+import com.scratchgame.compiled.WinCombinationTable;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+import java.util.Map;
+
+// Writes rounds straight to a stream with a Jackson generator. The factory is shared and thread-safe, a
+// writer holds one generator and belongs to one thread. Closing the writer flushes it but leaves the
+// underlying stream open.
+public class GameResultWriter implements Closeable, Flushable {
+    private static final JsonFactory FACTORY = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    public enum Format {
+        PRETTY, COMPACT, NDJSON
+    }
+
+    private final JsonGenerator generator;
+    private final Format format;
+
+    public GameResultWriter(OutputStream out, Format format) throws IOException {
+        this(FACTORY.createGenerator(out), format);
+    }
+
+    public GameResultWriter(WritableByteChannel channel, Format format) throws IOException {
+        this(Channels.newOutputStream(channel), format);
+    }
+
+    private GameResultWriter(JsonGenerator generator, Format format) {
+        this.generator = generator;
+        this.format = format;
+        if (format == Format.PRETTY) {
+            generator.setPrettyPrinter(new DefaultPrettyPrinter().withRootSeparator(System.lineSeparator()));
+        } else if (format == Format.COMPACT) {
+            generator.setRootValueSeparator(new SerializedString("\n"));
+        } else {
+            // Every record ends with its own newline, so no separator goes in front of the next one
+            generator.setRootValueSeparator(null);
+        }
+    }
+
+    public static String toJson(GameResult result, Format format) throws IOException {
+        StringWriter out = new StringWriter();
+        try (GameResultWriter writer = new GameResultWriter(FACTORY.createGenerator(out), format)) {
+            writer.write(result);
+        }
+        return out.toString();
+    }
+
+    public void write(GameResult result) throws IOException {
+        generator.writeStartObject();
+
+        generator.writeFieldName("matrix");
+        Board board = result.getBoard();
+        if (board != null && result.getSymbols() != null) {
+            writeMatrix(board.cells(), 0, board.getRows(), board.getColumns(), result.getSymbols());
+        } else {
+            writeMatrix(result.getMatrix());
+        }
+
+        generator.writeNumberField("reward", result.getReward());
+
+        generator.writeFieldName("applied_winning_combinations");
+        Map<String, List<String>> appliedWinningCombinations = result.getApplied_winning_combinations();
+        if (appliedWinningCombinations == null) {
+            generator.writeNull();
+        } else {
+            generator.writeStartObject();
+            for (Map.Entry<String, List<String>> entry : appliedWinningCombinations.entrySet()) {
+                generator.writeFieldName(entry.getKey());
+                generator.writeStartArray();
+                for (String combination : entry.getValue()) {
+                    generator.writeString(combination);
+                }
+                generator.writeEndArray();
+            }
+            generator.writeEndObject();
+        }
+
+        generator.writeStringField("applied_bonus_symbol", result.getApplied_bonus_symbol());
+        generator.writeEndObject();
+        endRecord();
+    }
+
+    // Writes one round of a batch with the same layout as a GameResult, without materializing it
+    public void write(RoundBatch batch, int round, SymbolTable symbols, WinCombinationTable combinations) throws IOException {
+        write(batch, round, -1, symbols, combinations);
+    }
+
+    // Same layout, led by the round's id unless it is negative
+    public void write(RoundBatch batch, int round, long roundId, SymbolTable symbols, WinCombinationTable combinations) throws IOException {
+        generator.writeStartObject();
+        if (roundId >= 0) {
+            generator.writeNumberField("round_id", roundId);
+        }
+
+        generator.writeFieldName("matrix");
+        writeMatrix(batch.getBoards(), batch.boardOffset(round), batch.getRows(), batch.getColumns(), symbols);
+
+        generator.writeNumberField("reward", batch.getReward(round));
+
+        // The combinations applied to one symbol are stored next to each other
+        generator.writeFieldName("applied_winning_combinations");
+        generator.writeStartObject();
+        int applied = batch.getAppliedCount(round);
+        for (int i = 0; i < applied; i++) {
+            int symbolId = batch.getAppliedSymbolId(round, i);
+            if (i == 0 || batch.getAppliedSymbolId(round, i - 1) != symbolId) {
+                if (i > 0) {
+                    generator.writeEndArray();
+                }
+                generator.writeFieldName(symbols.name(symbolId));
+                generator.writeStartArray();
+            }
+            generator.writeString(combinations.getName(batch.getAppliedCombinationId(round, i)));
+        }
+        if (applied > 0) {
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+
+        int bonusSymbolId = batch.getBonusSymbolId(round);
+        generator.writeStringField("applied_bonus_symbol", bonusSymbolId >= 0 ? symbols.name(bonusSymbolId) : null);
+        generator.writeEndObject();
+        endRecord();
+    }
+
+    private void writeMatrix(byte[] cells, int offset, int rows, int columns, SymbolTable symbols) throws IOException {
+        generator.writeStartArray();
+        for (int row = 0; row < rows; row++) {
+            generator.writeStartArray();
+            for (int col = 0; col < columns; col++) {
+                int symbolId = cells[offset + row * columns + col];
+                if (symbolId >= 0) {
+                    generator.writeString(symbols.name(symbolId));
+                } else {
+                    generator.writeNull();
+                }
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndArray();
+    }
+
+    private void writeMatrix(String[][] matrix) throws IOException {
+        if (matrix == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartArray();
+        for (String[] row : matrix) {
+            generator.writeStartArray();
+            for (String symbol : row) {
+                generator.writeString(symbol);
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndArray();
+    }
+
+    private void endRecord() throws IOException {
+        if (format == Format.NDJSON) {
+            generator.writeRaw('\n');
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        generator.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
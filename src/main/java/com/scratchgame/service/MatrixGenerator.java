@@ -1,75 +1,97 @@
 package com.scratchgame.service;
 
+import com.scratchgame.compiled.CellTables;
+import com.scratchgame.compiled.CompiledGame;
+import com.scratchgame.compiled.SymbolTable;
 import com.scratchgame.model.Configuration;
-import com.scratchgame.model.probability.StandardSymbolProbability;
+import com.scratchgame.random.RandomSource;
 
-import java.util.*;
+import java.util.random.RandomGenerator;
 
 public class MatrixGenerator {
-    private final Configuration config;
-    private final Random random;
+    private final int rows;
+    private final int columns;
+    private final RandomSource random;
+    private final SymbolTable symbols;
+    private final CellTables cellTables;
 
+    // Per-thread streams, so the default generator can be shared across threads
     public MatrixGenerator(Configuration config) {
-        this.config = config;
-        this.random = new Random();
+        this(config, RandomSource.threadLocal());
     }
 
-    public MatrixGenerator(Configuration config, Random random) {
-        this.config = config;
+    public MatrixGenerator(Configuration config, RandomGenerator random) {
+        this(config, RandomSource.of(random));
+    }
+
+    public MatrixGenerator(Configuration config, RandomSource random) {
+        this.rows = config.getRows();
+        this.columns = config.getColumns();
         this.random = random;
+        this.symbols = SymbolTable.of(config);
+        this.cellTables = CellTables.compile(config, symbols);
+    }
+
+    public MatrixGenerator(CompiledGame game) {
+        this(game, RandomSource.threadLocal());
+    }
+
+    public MatrixGenerator(CompiledGame game, RandomSource random) {
+        this.rows = game.getRows();
+        this.columns = game.getColumns();
+        this.random = random;
+        this.symbols = game.getSymbols();
+        this.cellTables = game.getCellTables();
     }
 
     public String[][] generate() {
-        int rows = config.getRows();
-        int columns = config.getColumns();
-        String[][] matrix = new String[rows][columns];
-
-        List<StandardSymbolProbability> standardProbabilities = config.getProbabilities().getStandard_symbols();
-        Map<String, Integer> bonusSymbolWeights = config.getProbabilities().getBonus_symbols().getSymbols();
-        int totalBonusWeight = bonusSymbolWeights.values().stream().mapToInt(Integer::intValue).sum();
-
-        for (int row = 0; row < rows; row++) {
-            for (int col = 0; col < columns; col++) {
-                // Get standard symbol weights for this cell
-                Map<String, Integer> symbolWeights = getSymbolWeightsForCell(row, col, standardProbabilities);
-                int totalWeight = symbolWeights.values().stream().mapToInt(Integer::intValue).sum();
-
-                // Combine standard and bonus symbols if necessary
-                Map<String, Integer> combinedWeights = new HashMap<>(symbolWeights);
-                combinedWeights.putAll(bonusSymbolWeights);
-                int combinedTotalWeight = totalWeight + totalBonusWeight;
-
-                // Select a symbol based on combined weights
-                String symbol = selectSymbol(combinedWeights, combinedTotalWeight);
-                matrix[row][col] = symbol;
-            }
-        }
+        return generateBoard().toMatrix(symbols);
+    }
 
-        return matrix;
+    public Board generateBoard() {
+        Board board = new Board(rows, columns);
+        generate(board);
+        return board;
     }
 
-    private Map<String, Integer> getSymbolWeightsForCell(int row, int col, List<StandardSymbolProbability> standardProbabilities) {
-        // Find the probability configuration for this cell
-        for (StandardSymbolProbability prob : standardProbabilities) {
-            if (prob.getRow() == row && prob.getColumn() == col) {
-                return prob.getSymbols();
-            }
-        }
+    public void generate(Board board) {
+        generate(board.cells(), 0);
+    }
 
-        // If no specific configuration, use default (first in the list)
-        return standardProbabilities.get(0).getSymbols();
+    // Draws from the given generator instead of the source, e.g. the stream of one addressed round
+    public void generate(Board board, RandomGenerator generator) {
+        generate(board.cells(), 0, generator);
     }
 
-    private String selectSymbol(Map<String, Integer> symbolWeights, int totalWeight) {
-        int randomValue = random.nextInt(totalWeight);
-        int cumulativeWeight = 0;
-        for (Map.Entry<String, Integer> entry : symbolWeights.entrySet()) {
-            cumulativeWeight += entry.getValue();
-            if (randomValue < cumulativeWeight) {
-                return entry.getKey();
-            }
+    void generate(byte[] cells, int offset) {
+        generate(cells, offset, random.current());
+    }
+
+    void generate(byte[] cells, int offset, RandomGenerator generator) {
+        // Draw every cell from the precompiled table of that cell
+        for (int cell = 0; cell < cellTables.size(); cell++) {
+            cells[offset + cell] = (byte) cellTables.get(cell).sample(generator);
+        }
+    }
+
+    // Fills consecutive boards cell by cell, so each table is walked once per call instead of once per board
+    void generate(byte[] cells, int offset, int boards) {
+        RandomGenerator generator = random.current();
+        int size = cellTables.size();
+        for (int cell = 0; cell < size; cell++) {
+            cellTables.get(cell).sample(generator, cells, offset + cell, size, boards);
         }
-        // Should not reach here if weights are correct
-        throw new IllegalStateException("Failed to select a symbol");
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public SymbolTable getSymbols() {
+        return symbols;
     }
 }
@@ -0,0 +1,141 @@
+package com.scratchgame.service;
+
+import java.util.Arrays;
+
+// Struct-of-arrays buffer holding the boards and outcomes of a batch of rounds. The buffer is reused
+// from one batch to the next, so its contents are only valid until the next batch is played into it.
+public class RoundBatch {
+    // Largest array the VM reliably allocates, every board of the batch is kept in one byte array
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+    private final int rows;
+    private final int columns;
+    private final int cellsPerBoard;
+    private int capacity;
+    private int size;
+    private double betAmount;
+    private byte[] boards;
+    private double[] rewards;
+    private int[] bonusSymbolIds;
+    // Applied combinations of round i are the pairs in [appliedOffsets[i], appliedOffsets[i + 1])
+    private int[] appliedOffsets;
+    private int[] appliedSymbolIds;
+    private int[] appliedCombinationIds;
+
+    public RoundBatch(int rows, int columns, int capacity) {
+        this.rows = rows;
+        this.columns = columns;
+        this.cellsPerBoard = rows * columns;
+        this.boards = new byte[0];
+        this.rewards = new double[0];
+        this.bonusSymbolIds = new int[0];
+        this.appliedOffsets = new int[1];
+        ensureCapacity(capacity);
+        this.appliedSymbolIds = new int[capacity];
+        this.appliedCombinationIds = new int[capacity];
+    }
+
+    void clear(int rounds, double betAmount) {
+        ensureCapacity(rounds);
+        this.betAmount = betAmount;
+        size = 0;
+        appliedOffsets[0] = 0;
+    }
+
+    private void ensureCapacity(int rounds) {
+        if (rounds <= capacity) {
+            return;
+        }
+        if ((long) rounds * cellsPerBoard > MAX_ARRAY_LENGTH) {
+            throw new IllegalArgumentException("Batch of " + rounds + " rounds on " + cellsPerBoard
+                    + " cells is too large, at most " + MAX_ARRAY_LENGTH / cellsPerBoard + " rounds fit");
+        }
+        capacity = rounds;
+        boards = Arrays.copyOf(boards, rounds * cellsPerBoard);
+        rewards = Arrays.copyOf(rewards, rounds);
+        bonusSymbolIds = Arrays.copyOf(bonusSymbolIds, rounds);
+        appliedOffsets = Arrays.copyOf(appliedOffsets, rounds + 1);
+    }
+
+    void add(EvaluationContext context) {
+        int round = size++;
+        rewards[round] = context.reward;
+        bonusSymbolIds[round] = context.appliedBonusSymbolId;
+
+        int start = appliedOffsets[round];
+        int end = start + context.appliedCount;
+        if (end > appliedSymbolIds.length) {
+            int grown = Math.max(end, appliedSymbolIds.length * 2);
+            appliedSymbolIds = Arrays.copyOf(appliedSymbolIds, grown);
+            appliedCombinationIds = Arrays.copyOf(appliedCombinationIds, grown);
+        }
+        System.arraycopy(context.appliedSymbolIds, 0, appliedSymbolIds, start, context.appliedCount);
+        System.arraycopy(context.appliedCombinationIds, 0, appliedCombinationIds, start, context.appliedCount);
+        appliedOffsets[round + 1] = end;
+    }
+
+    byte[] getBoards() {
+        return boards;
+    }
+
+    int boardOffset(int round) {
+        return round * cellsPerBoard;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double getBetAmount() {
+        return betAmount;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getCellsPerBoard() {
+        return cellsPerBoard;
+    }
+
+    public int getSymbolId(int round, int cell) {
+        return boards[round * cellsPerBoard + cell];
+    }
+
+    public void copyBoard(int round, Board board) {
+        System.arraycopy(boards, round * cellsPerBoard, board.cells(), 0, cellsPerBoard);
+    }
+
+    public double getReward(int round) {
+        return rewards[round];
+    }
+
+    public double getTotalReward() {
+        double total = 0.0;
+        for (int round = 0; round < size; round++) {
+            total += rewards[round];
+        }
+        return total;
+    }
+
+    // -1 when no bonus symbol was applied in the round
+    public int getBonusSymbolId(int round) {
+        return bonusSymbolIds[round];
+    }
+
+    public int getAppliedCount(int round) {
+        return appliedOffsets[round + 1] - appliedOffsets[round];
+    }
+
+    public int getAppliedSymbolId(int round, int index) {
+        return appliedSymbolIds[appliedOffsets[round] + index];
+    }
+
+    public int getAppliedCombinationId(int round, int index) {
+        return appliedCombinationIds[appliedOffsets[round] + index];
+    }
+}
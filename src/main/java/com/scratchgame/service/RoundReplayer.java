@@ -0,0 +1,59 @@
+package com.scratchgame.service;
+
+import com.scratchgame.compiled.CompiledGame;
+import com.scratchgame.model.Configuration;
+import com.scratchgame.random.RoundSeeds;
+
+// Plays rounds addressed by (master seed, round id). Playing a round and replaying it later draw from
+// the same stream, so only the round id and bet need to be stored to reconstruct a result, together with the
+// hash of the game it was played on. The hash covers the sampler, since another sampler draws other symbols
+// from the stream, and changes whenever a reload changes the weights or combinations. Thread-safe.
+public class RoundReplayer {
+    private final MatrixGenerator generator;
+    private final GameEvaluator evaluator;
+    private final RoundSeeds seeds;
+    private final String gameHash;
+
+    public RoundReplayer(Configuration config, long masterSeed) {
+        this(CompiledGame.compile(config), masterSeed);
+    }
+
+    public RoundReplayer(Configuration config, String sampler, long masterSeed) {
+        this(CompiledGame.compile(config, sampler), masterSeed);
+    }
+
+    public RoundReplayer(CompiledGame game, long masterSeed) {
+        this.generator = new MatrixGenerator(game);
+        this.evaluator = new GameEvaluator(game);
+        this.seeds = new RoundSeeds(masterSeed);
+        this.gameHash = game.getHash();
+    }
+
+    public Board generateBoard(long roundId) {
+        Board board = new Board(generator.getRows(), generator.getColumns());
+        generator.generate(board, seeds.random(roundId));
+        return board;
+    }
+
+    // Plays the round on this game, without checking which game it was handed out on
+    public GameResult replay(long roundId, double betAmount) {
+        return evaluator.evaluate(generateBoard(roundId), betAmount);
+    }
+
+    // Reconstructs a round handed out on the game with the given hash
+    public GameResult replay(long roundId, String gameHash, double betAmount) {
+        if (!this.gameHash.equals(gameHash)) {
+            throw new IllegalArgumentException("Round " + roundId + " was played on game " + gameHash
+                    + ", this configuration compiles to game " + this.gameHash);
+        }
+        return replay(roundId, betAmount);
+    }
+
+    public long getMasterSeed() {
+        return seeds.getMasterSeed();
+    }
+
+    public String getGameHash() {
+        return gameHash;
+    }
+}
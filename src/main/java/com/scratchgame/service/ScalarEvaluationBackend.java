@@ -0,0 +1,44 @@
+package com.scratchgame.service;
+
+import com.scratchgame.compiled.SymbolTable;
+import com.scratchgame.compiled.WinCombinationTable;
+
+class ScalarEvaluationBackend implements EvaluationBackend {
+    private final SymbolTable symbols;
+    private final WinCombinationTable combinations;
+
+    ScalarEvaluationBackend(SymbolTable symbols, WinCombinationTable combinations) {
+        this.symbols = symbols;
+        this.combinations = combinations;
+    }
+
+    @Override
+    public void scan(byte[] cells, int offset, int size, EvaluationContext context) {
+        int words = context.words;
+
+        // Collect counts and an occupancy mask of the cells held by each standard symbol
+        for (int cell = 0; cell < size; cell++) {
+            int symbolId = cells[offset + cell];
+            if (symbolId >= 0 && symbols.isStandard(symbolId)) {
+                if (context.symbolCounts[symbolId]++ == 0) {
+                    context.presentSymbols[context.presentCount++] = symbolId;
+                }
+                context.symbolOccupancy[symbolId * words + (cell >>> 6)] |= 1L << cell;
+            }
+        }
+
+        context.sortPresentSymbols();
+    }
+
+    @Override
+    public void matchLinear(EvaluationContext context, int symbolId, int[] bestCombinationPerGroup) {
+        int offset = symbolId * context.words;
+        for (int combination : combinations.getLinearCombinations()) {
+            int group = combinations.getGroupId(combination);
+            if (combinations.isBetter(combination, bestCombinationPerGroup[group])
+                    && combinations.coversAnyArea(combination, context.symbolOccupancy, offset, context.areaScratch)) {
+                bestCombinationPerGroup[group] = combination;
+            }
+        }
+    }
+}
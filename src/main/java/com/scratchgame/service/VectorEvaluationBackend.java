@@ -0,0 +1,146 @@
+package com.scratchgame.service;
+
+import com.scratchgame.compiled.AreaRuleSet;
+import com.scratchgame.compiled.SymbolTable;
+import com.scratchgame.compiled.WinCombinationTable;
+import jdk.incubator.vector.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// SIMD backend on the Vector API. The board is compared against every symbol id one vector of cells at a
+// time, each comparison mask being that symbol's occupancy bits for those cells. On boards of up to 64 cells
+// all linear_symbols areas are stored side by side and tested against a symbol's occupancy a vector at a time.
+// The lines of area rules join that layout, only cluster rules are matched afterwards through their rule set.
+class VectorEvaluationBackend implements EvaluationBackend {
+    // At most 64 lanes so a comparison mask fits into one occupancy word
+    private static final VectorSpecies<Byte> CELLS = ByteVector.SPECIES_PREFERRED.length() <= Long.SIZE
+            ? ByteVector.SPECIES_PREFERRED
+            : ByteVector.SPECIES_512;
+    private static final VectorSpecies<Long> AREAS = LongVector.SPECIES_PREFERRED;
+
+    private final WinCombinationTable combinations;
+    private final ScalarEvaluationBackend scalar;
+    private final byte[] standardIds;
+    private final long[] areaMasks;
+    private final int areaCount;
+    private final int[] areaCombinations;
+    private final int[] ruleCombinations;
+
+    VectorEvaluationBackend(SymbolTable symbols, WinCombinationTable combinations) {
+        this.combinations = combinations;
+        this.scalar = new ScalarEvaluationBackend(symbols, combinations);
+
+        List<Integer> standard = new ArrayList<>();
+        for (int id = 0; id < symbols.size(); id++) {
+            if (symbols.isStandard(id)) {
+                standard.add(id);
+            }
+        }
+        this.standardIds = toBytes(standard);
+
+        // Only single-word boards get the flat area layout, larger ones match areas like the scalar backend
+        List<Long> masks = new ArrayList<>();
+        List<Integer> owners = new ArrayList<>();
+        if (combinations.getWords() == 1) {
+            for (int combination : combinations.getLinearCombinations()) {
+                for (long[] area : combinations.getAreaMasks(combination)) {
+                    masks.add(area[0]);
+                    owners.add(combination);
+                }
+                AreaRuleSet rules = combinations.getAreaRules(combination);
+                if (rules != null && !rules.hasClusters()) {
+                    for (long[] area : rules.expandLines()) {
+                        masks.add(area[0]);
+                        owners.add(combination);
+                    }
+                }
+            }
+        }
+        // Padded to whole vectors, the padding lanes are masked out of the comparison
+        this.areaCount = masks.size();
+        this.areaMasks = new long[(areaCount + AREAS.length() - 1) / AREAS.length() * AREAS.length()];
+        for (int i = 0; i < areaCount; i++) {
+            areaMasks[i] = masks.get(i);
+        }
+        this.areaCombinations = owners.stream().mapToInt(Integer::intValue).toArray();
+
+        List<Integer> rules = new ArrayList<>();
+        for (int combination : combinations.getLinearCombinations()) {
+            AreaRuleSet areaRules = combinations.getAreaRules(combination);
+            if (areaRules != null && (combinations.getWords() != 1 || areaRules.hasClusters())) {
+                rules.add(combination);
+            }
+        }
+        this.ruleCombinations = rules.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    @Override
+    public void scan(byte[] cells, int offset, int size, EvaluationContext context) {
+        int words = context.words;
+        int lanes = CELLS.length();
+        for (int start = 0; start < size; start += lanes) {
+            VectorMask<Byte> inBoard = CELLS.indexInRange(start, size);
+            // Lanes past the board are masked out of every comparison, so a full load is fine while it stays in the array
+            ByteVector board = offset + start + lanes <= cells.length
+                    ? ByteVector.fromArray(CELLS, cells, offset + start)
+                    : ByteVector.fromArray(CELLS, cells, offset + start, inBoard);
+            int word = start >>> 6;
+            int shift = start & 63;
+
+            for (byte symbolId : standardIds) {
+                long bits = board.compare(VectorOperators.EQ, symbolId, inBoard).toLong();
+                if (bits != 0) {
+                    context.symbolCounts[symbolId] += Long.bitCount(bits);
+                    context.symbolOccupancy[symbolId * words + word] |= bits << shift;
+                }
+            }
+        }
+
+        for (byte symbolId : standardIds) {
+            if (context.symbolCounts[symbolId] > 0) {
+                context.presentSymbols[context.presentCount++] = symbolId;
+            }
+        }
+    }
+
+    @Override
+    public void matchLinear(EvaluationContext context, int symbolId, int[] bestCombinationPerGroup) {
+        if (areaCount == 0 || context.words != 1) {
+            scalar.matchLinear(context, symbolId, bestCombinationPerGroup);
+            return;
+        }
+
+        LongVector occupancy = LongVector.broadcast(AREAS, context.symbolOccupancy[symbolId]);
+        int lanes = AREAS.length();
+        for (int start = 0; start < areaCount; start += lanes) {
+            VectorMask<Long> inAreas = AREAS.indexInRange(start, areaCount);
+            LongVector masks = LongVector.fromArray(AREAS, areaMasks, start);
+            long covered = masks.and(occupancy).compare(VectorOperators.EQ, masks, inAreas).toLong();
+            while (covered != 0) {
+                int combination = areaCombinations[start + Long.numberOfTrailingZeros(covered)];
+                int group = combinations.getGroupId(combination);
+                if (combinations.isBetter(combination, bestCombinationPerGroup[group])) {
+                    bestCombinationPerGroup[group] = combination;
+                }
+                covered &= covered - 1;
+            }
+        }
+
+        for (int combination : ruleCombinations) {
+            int group = combinations.getGroupId(combination);
+            if (combinations.isBetter(combination, bestCombinationPerGroup[group])
+                    && combinations.getAreaRules(combination).covers(context.symbolOccupancy, symbolId * context.words, context.areaScratch)) {
+                bestCombinationPerGroup[group] = combination;
+            }
+        }
+    }
+
+    private static byte[] toBytes(List<Integer> ids) {
+        byte[] bytes = new byte[ids.size()];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (int) ids.get(i);
+        }
+        return bytes;
+    }
+}
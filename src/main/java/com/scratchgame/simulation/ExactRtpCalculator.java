@@ -0,0 +1,390 @@
+package com.scratchgame.simulation;
+
+import com.scratchgame.compiled.AreaRuleSet;
+import com.scratchgame.compiled.CellTables;
+import com.scratchgame.compiled.CompiledGame;
+import com.scratchgame.compiled.SymbolTable;
+import com.scratchgame.compiled.WinCombinationTable;
+import com.scratchgame.enums.SymbolImpactEnum;
+import com.scratchgame.model.Configuration;
+
+import java.util.*;
+
+// Computes the expected payout of a configuration without sampling. By linearity of expectation the
+// base payout is summed symbol by symbol: cells covered by linear_symbols areas are enumerated as
+// occupancy patterns of that symbol, the remaining cells only add to its count and are folded in by
+// convolving their count distribution. The bonus symbol is independent of the standard cells, so it
+// only needs the joint probability of "no winning symbol" and "no bonus cell", which a memoized scan
+// over the cells computes from capped symbol counts and per-area states.
+public class ExactRtpCalculator {
+    private static final int MAX_CELLS = 64;
+    private static final int MAX_ENUMERATED_CELLS = 24;
+    private static final double NO_MATCH = -1.0;
+
+    private final SymbolTable symbols;
+    private final CellTables cellTables;
+    private final WinCombinationTable combinations;
+    private final int cells;
+    private final int groupCount;
+    private final int[] linearCombinationGroups;
+    private final long[][] linearCombinationAreas;
+    private final double[] linearCombinationMultipliers;
+    private final double[][] sameSymbolsMultipliers;
+    private final int[] enumeratedCells;
+    private final int[] convolvedCells;
+    private final double[] bonusProbabilities;
+
+    public ExactRtpCalculator(Configuration config) {
+        this(CompiledGame.compile(config));
+    }
+
+    public ExactRtpCalculator(CompiledGame game) {
+        this.cells = game.getCells();
+        if (cells > MAX_CELLS) {
+            throw new IllegalArgumentException("Exact calculation supports boards of at most " + MAX_CELLS + " cells");
+        }
+        this.symbols = game.getSymbols();
+        this.cellTables = game.getCellTables();
+        this.combinations = game.getCombinations();
+
+        List<Integer> linear = new ArrayList<>();
+        for (int i = 0; i < combinations.size(); i++) {
+            if (combinations.isLinearSymbols(i)) {
+                linear.add(i);
+            }
+        }
+        this.groupCount = combinations.getGroupCount();
+
+        // Best same_symbols multiplier of each group for every possible count of a symbol
+        this.sameSymbolsMultipliers = new double[groupCount][cells + 1];
+        for (double[] multipliers : sameSymbolsMultipliers) {
+            Arrays.fill(multipliers, NO_MATCH);
+        }
+        for (int i = 0; i < combinations.size(); i++) {
+            if (combinations.isSameSymbols(i)) {
+                double[] multipliers = sameSymbolsMultipliers[combinations.getGroupId(i)];
+                for (int count = Math.max(1, combinations.getCount(i)); count <= cells; count++) {
+                    multipliers[count] = Math.max(multipliers[count], combinations.getMultiplier(i));
+                }
+            }
+        }
+
+        this.linearCombinationGroups = new int[linear.size()];
+        this.linearCombinationAreas = new long[linear.size()][];
+        this.linearCombinationMultipliers = new double[linear.size()];
+        long coveredCells = 0;
+        for (int i = 0; i < linear.size(); i++) {
+            // Line rules are expanded to their areas, clusters have too many shapes to enumerate
+            long[][] masks = combinations.getAreaMasks(linear.get(i));
+            AreaRuleSet rules = combinations.getAreaRules(linear.get(i));
+            if (rules != null) {
+                if (rules.hasClusters()) {
+                    throw new IllegalArgumentException("Exact calculation does not support clusters area rules");
+                }
+                long[][] lines = rules.expandLines();
+                masks = Arrays.copyOf(masks, masks.length + lines.length);
+                System.arraycopy(lines, 0, masks, masks.length - lines.length, lines.length);
+            }
+            linearCombinationGroups[i] = combinations.getGroupId(linear.get(i));
+            linearCombinationMultipliers[i] = combinations.getMultiplier(linear.get(i));
+            linearCombinationAreas[i] = new long[masks.length];
+            for (int area = 0; area < masks.length; area++) {
+                linearCombinationAreas[i][area] = masks[area][0];
+                coveredCells |= masks[area][0];
+            }
+        }
+
+        // Only cells that take part in a linear area need their exact placement enumerated
+        if (Long.bitCount(coveredCells) > MAX_ENUMERATED_CELLS) {
+            throw new IllegalArgumentException("Exact calculation supports at most " + MAX_ENUMERATED_CELLS
+                    + " cells covered by linear_symbols areas");
+        }
+        this.enumeratedCells = new int[Long.bitCount(coveredCells)];
+        this.convolvedCells = new int[cells - enumeratedCells.length];
+        for (int cell = 0, enumerated = 0, convolved = 0; cell < cells; cell++) {
+            if ((coveredCells & (1L << cell)) != 0) {
+                enumeratedCells[enumerated++] = cell;
+            } else {
+                convolvedCells[convolved++] = cell;
+            }
+        }
+
+        this.bonusProbabilities = new double[cells];
+        for (int cell = 0; cell < cells; cell++) {
+            for (int symbolId = 0; symbolId < symbols.size(); symbolId++) {
+                if (symbols.isBonus(symbolId)) {
+                    bonusProbabilities[cell] += cellTables.probability(cell, symbolId);
+                }
+            }
+        }
+    }
+
+    public ExactRtpReport calculate(double betAmount) {
+        if (betAmount <= 0) {
+            throw new IllegalArgumentException("Betting amount must be positive");
+        }
+
+        // Expected base payout per unit bet, and the part of it earned on boards holding a bonus symbol
+        double baseRtp = 0.0;
+        double baseRtpWithBonus = 0.0;
+        Map<String, Double> symbolContributions = new LinkedHashMap<>();
+        for (int symbolId = 0; symbolId < symbols.size(); symbolId++) {
+            if (symbols.isStandard(symbolId)) {
+                double[] expected = expectedPayout(symbolId);
+                baseRtp += expected[0];
+                baseRtpWithBonus += expected[0] - expected[1];
+                symbolContributions.put(symbols.name(symbolId), expected[0]);
+            }
+        }
+
+        double noBonusProbability = 1.0;
+        for (double bonusProbability : bonusProbabilities) {
+            noBonusProbability *= 1.0 - bonusProbability;
+        }
+        double[] noWin = noWinProbabilities();
+        double hitFrequency = 1.0 - noWin[0];
+        double winWithBonusProbability = hitFrequency - (noBonusProbability - noWin[1]);
+
+        // The first bonus cell holds each bonus symbol in proportion to its weight, whatever the other cells hold
+        double bonusWeight = 0.0;
+        for (int symbolId = 0; symbolId < symbols.size(); symbolId++) {
+            if (symbols.isBonus(symbolId)) {
+                bonusWeight += cellTables.getWeights(0)[symbolId];
+            }
+        }
+
+        double rtp = baseRtp;
+        Map<String, Double> bonusContributions = new LinkedHashMap<>();
+        for (int symbolId = 0; symbolId < symbols.size(); symbolId++) {
+            if (!symbols.isBonus(symbolId)) {
+                continue;
+            }
+            double share = bonusWeight > 0 ? cellTables.getWeights(0)[symbolId] / bonusWeight : 0.0;
+            double contribution = 0.0;
+            if (symbols.impact(symbolId) == SymbolImpactEnum.multiply_reward) {
+                contribution = (symbols.rewardMultiplier(symbolId) - 1.0) * share * baseRtpWithBonus;
+            } else if (symbols.impact(symbolId) == SymbolImpactEnum.extra_bonus) {
+                contribution = symbols.extra(symbolId) / betAmount * share * winWithBonusProbability;
+            }
+            bonusContributions.put(symbols.name(symbolId), contribution);
+            rtp += contribution;
+        }
+
+        ExactRtpReport report = new ExactRtpReport();
+        report.setBetting_amount(betAmount);
+        report.setRtp(rtp);
+        report.setBase_rtp(baseRtp);
+        report.setHit_frequency(hitFrequency);
+        report.setSymbols(symbolContributions);
+        report.setBonus_symbols(bonusContributions);
+        return report;
+    }
+
+    // Returns the expected payout of one symbol per unit bet, over all boards and over boards without a bonus cell
+    private double[] expectedPayout(int symbolId) {
+        double multiplier = symbols.rewardMultiplier(symbolId);
+
+        // Count distribution of the symbol over the cells outside every linear area
+        double[] convolved = {1.0};
+        double[] convolvedWithoutBonus = {1.0};
+        for (int cell : convolvedCells) {
+            double probability = cellTables.probability(cell, symbolId);
+            convolved = convolve(convolved, probability, 1.0 - probability);
+            convolvedWithoutBonus = convolve(convolvedWithoutBonus, probability, 1.0 - probability - bonusProbabilities[cell]);
+        }
+
+        double[] sums = new double[2];
+        enumerate(symbolId, 0, 0L, 0, 1.0, 1.0, convolved, convolvedWithoutBonus, multiplier, new double[groupCount], sums);
+        return sums;
+    }
+
+    private static double[] convolve(double[] distribution, double present, double absent) {
+        double[] result = new double[distribution.length + 1];
+        for (int count = 0; count < distribution.length; count++) {
+            result[count] += distribution[count] * absent;
+            result[count + 1] += distribution[count] * present;
+        }
+        return result;
+    }
+
+    private void enumerate(int symbolId, int index, long pattern, int count, double probability, double probabilityWithoutBonus,
+                           double[] convolved, double[] convolvedWithoutBonus, double multiplier, double[] groupMultipliers, double[] sums) {
+        if (index == enumeratedCells.length) {
+            score(pattern, count, probability, probabilityWithoutBonus, convolved, convolvedWithoutBonus, multiplier, groupMultipliers, sums);
+            return;
+        }
+
+        int cell = enumeratedCells[index];
+        double present = cellTables.probability(cell, symbolId);
+        if (present > 0) {
+            enumerate(symbolId, index + 1, pattern | (1L << cell), count + 1, probability * present, probabilityWithoutBonus * present,
+                    convolved, convolvedWithoutBonus, multiplier, groupMultipliers, sums);
+        }
+        if (present < 1) {
+            enumerate(symbolId, index + 1, pattern, count, probability * (1.0 - present),
+                    probabilityWithoutBonus * (1.0 - present - bonusProbabilities[cell]),
+                    convolved, convolvedWithoutBonus, multiplier, groupMultipliers, sums);
+        }
+    }
+
+    private void score(long pattern, int enumeratedCount, double probability, double probabilityWithoutBonus,
+                       double[] convolved, double[] convolvedWithoutBonus, double multiplier, double[] groupMultipliers, double[] sums) {
+        // Linear areas only depend on the enumerated pattern
+        Arrays.fill(groupMultipliers, NO_MATCH);
+        for (int i = 0; i < linearCombinationAreas.length; i++) {
+            for (long area : linearCombinationAreas[i]) {
+                if ((pattern & area) == area) {
+                    int group = linearCombinationGroups[i];
+                    groupMultipliers[group] = Math.max(groupMultipliers[group], linearCombinationMultipliers[i]);
+                    break;
+                }
+            }
+        }
+
+        // same_symbols tiers depend on the total count, including the convolved cells
+        for (int extra = 0; extra < convolved.length; extra++) {
+            int count = enumeratedCount + extra;
+            if (count == 0) {
+                continue;
+            }
+            boolean matched = false;
+            double rewardMultiplier = 1.0;
+            for (int group = 0; group < groupCount; group++) {
+                double best = Math.max(groupMultipliers[group], sameSymbolsMultipliers[group][count]);
+                if (best != NO_MATCH) {
+                    matched = true;
+                    rewardMultiplier *= best;
+                }
+            }
+            if (matched) {
+                double payout = multiplier * rewardMultiplier;
+                sums[0] += probability * convolved[extra] * payout;
+                sums[1] += probabilityWithoutBonus * convolvedWithoutBonus[extra] * payout;
+            }
+        }
+    }
+
+    // Returns the probability that no symbol wins, and that no symbol wins and no cell holds a bonus symbol
+    private double[] noWinProbabilities() {
+        // A symbol can only make the round a winning one if it is a standard symbol with a positive multiplier
+        boolean[] winning = new boolean[symbols.size()];
+        for (int symbolId = 0; symbolId < symbols.size(); symbolId++) {
+            winning[symbolId] = symbols.isStandard(symbolId) && symbols.rewardMultiplier(symbolId) > 0;
+        }
+
+        int minimumCount = Integer.MAX_VALUE;
+        for (int i = 0; i < combinations.size(); i++) {
+            if (combinations.isSameSymbols(i)) {
+                minimumCount = Math.min(minimumCount, Math.max(1, combinations.getCount(i)));
+            }
+        }
+
+        // Flatten the areas into cell lists, an empty area is covered by any symbol on the board
+        List<int[]> areas = new ArrayList<>();
+        for (long[] combinationAreas : linearCombinationAreas) {
+            for (long area : combinationAreas) {
+                if (area == 0) {
+                    minimumCount = 1;
+                    continue;
+                }
+                int[] areaCells = new int[Long.bitCount(area)];
+                for (int cell = 0, i = 0; cell < cells; cell++) {
+                    if ((area & (1L << cell)) != 0) {
+                        areaCells[i++] = cell;
+                    }
+                }
+                areas.add(areaCells);
+            }
+        }
+        // Counts that can never reach a same_symbols tier are not tracked, which keeps the state space small
+        if (minimumCount > cells) {
+            minimumCount = 0;
+        }
+        int areaOffset = symbols.size();
+        List<List<Integer>> areasByCell = new ArrayList<>();
+        for (int cell = 0; cell < cells; cell++) {
+            areasByCell.add(new ArrayList<>());
+        }
+        for (int area = 0; area < areas.size(); area++) {
+            for (int cell : areas.get(area)) {
+                areasByCell.get(cell).add(area);
+            }
+        }
+
+        // State: capped count of each symbol followed by, for each open area, 1 + the symbol filling it so far
+        Map<ScanState, double[]> states = new HashMap<>();
+        states.put(new ScanState(new byte[areaOffset + areas.size()]), new double[]{1.0, 1.0});
+        for (int cell = 0; cell < cells; cell++) {
+            Map<ScanState, double[]> next = new HashMap<>();
+            int[] weights = cellTables.getWeights(cell);
+            for (Map.Entry<ScanState, double[]> entry : states.entrySet()) {
+                for (int symbolId = 0; symbolId < symbols.size(); symbolId++) {
+                    if (weights[symbolId] == 0) {
+                        continue;
+                    }
+                    byte[] values = entry.getKey().values.clone();
+                    if (!advance(values, cell, symbolId, winning[symbolId], minimumCount, areaOffset, areas, areasByCell.get(cell))) {
+                        continue;
+                    }
+                    double probability = cellTables.probability(cell, symbolId);
+                    double[] value = next.computeIfAbsent(new ScanState(values), k -> new double[2]);
+                    value[0] += entry.getValue()[0] * probability;
+                    if (!symbols.isBonus(symbolId)) {
+                        value[1] += entry.getValue()[1] * probability;
+                    }
+                }
+            }
+            states = next;
+        }
+
+        double[] result = new double[2];
+        for (double[] value : states.values()) {
+            result[0] += value[0];
+            result[1] += value[1];
+        }
+        return result;
+    }
+
+    // Places a symbol on the next cell, returns false once the placement makes the symbol win
+    private static boolean advance(byte[] values, int cell, int symbolId, boolean winning, int minimumCount,
+                                   int areaOffset, List<int[]> areas, List<Integer> cellAreas) {
+        if (winning && minimumCount > 0 && ++values[symbolId] >= minimumCount) {
+            return false;
+        }
+        for (int area : cellAreas) {
+            int[] areaCells = areas.get(area);
+            int index = areaOffset + area;
+            if (areaCells[0] == cell) {
+                values[index] = (byte) (winning ? symbolId + 1 : 0);
+            } else if (values[index] != symbolId + 1) {
+                values[index] = 0;
+            }
+            if (areaCells[areaCells.length - 1] == cell) {
+                if (values[index] != 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static final class ScanState {
+        private final byte[] values;
+        private final int hash;
+
+        private ScanState(byte[] values) {
+            this.values = values;
+            this.hash = Arrays.hashCode(values);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof ScanState && Arrays.equals(values, ((ScanState) other).values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
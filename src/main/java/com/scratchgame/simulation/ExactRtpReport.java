@@ -0,0 +1,24 @@
+package com.scratchgame.simulation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Map;
+
+@Getter
+@Setter
+public class ExactRtpReport {
+    private double betting_amount;
+    private double rtp;
+    private double base_rtp;
+    private double hit_frequency;
+    private Map<String, Double> symbols;
+    private Map<String, Double> bonus_symbols;
+
+    public String toJson() throws Exception {
+        ObjectWriter ow = new ObjectMapper().writer().withDefaultPrettyPrinter();
+        return ow.writeValueAsString(this);
+    }
+}
@@ -0,0 +1,160 @@
+package com.scratchgame.simulation;
+
+import com.scratchgame.compiled.CompiledGame;
+import com.scratchgame.compiled.SymbolTable;
+import com.scratchgame.compiled.WinCombinationTable;
+import com.scratchgame.model.Configuration;
+import com.scratchgame.service.BatchPlayer;
+import com.scratchgame.service.RoundBatch;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+public class MonteCarloSimulator {
+    // Rounds played by a single leaf task. The split tree only depends on the round count,
+    // so a seed reproduces the same result whatever the number of threads.
+    private static final long ROUNDS_PER_TASK = 1 << 16;
+
+    private final CompiledGame game;
+    private final SymbolTable symbols;
+    private final WinCombinationTable combinations;
+    private final int parallelism;
+
+    public MonteCarloSimulator(Configuration config) {
+        this(config, Runtime.getRuntime().availableProcessors());
+    }
+
+    public MonteCarloSimulator(Configuration config, int parallelism) {
+        this(CompiledGame.compile(config), parallelism);
+    }
+
+    public MonteCarloSimulator(CompiledGame game, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        this.game = game;
+        this.symbols = game.getSymbols();
+        this.combinations = game.getCombinations();
+        this.parallelism = parallelism;
+    }
+
+    public SimulationReport simulate(long rounds, double betAmount, long seed) {
+        if (rounds < 1) {
+            throw new IllegalArgumentException("Number of rounds must be positive");
+        }
+        if (betAmount <= 0) {
+            throw new IllegalArgumentException("Betting amount must be positive");
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            SimulationAccumulator accumulator = pool.invoke(new SimulationTask(rounds, betAmount, new SplittableRandom(seed)));
+            return buildReport(accumulator, betAmount);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private class SimulationTask extends RecursiveTask<SimulationAccumulator> {
+        private final long rounds;
+        private final double betAmount;
+        private final SplittableRandom random;
+
+        SimulationTask(long rounds, double betAmount, SplittableRandom random) {
+            this.rounds = rounds;
+            this.betAmount = betAmount;
+            this.random = random;
+        }
+
+        @Override
+        protected SimulationAccumulator compute() {
+            if (rounds <= ROUNDS_PER_TASK) {
+                return play(rounds, betAmount, random);
+            }
+
+            // Split the stream before forking so every subtree draws from its own independent generator
+            long half = rounds / 2;
+            SimulationTask left = new SimulationTask(half, betAmount, random.split());
+            SimulationTask right = new SimulationTask(rounds - half, betAmount, random);
+            left.fork();
+            SimulationAccumulator rightResult = right.compute();
+            return left.join().merge(rightResult);
+        }
+    }
+
+    private SimulationAccumulator play(long rounds, double betAmount, SplittableRandom random) {
+        BatchPlayer player = new BatchPlayer(game, random);
+        SimulationAccumulator accumulator = new SimulationAccumulator(combinations.size(), symbols.size());
+        player.playBatch(rounds, betAmount, batch -> record(batch, betAmount, accumulator));
+        return accumulator;
+    }
+
+    private void record(RoundBatch batch, double betAmount, SimulationAccumulator accumulator) {
+        for (int round = 0; round < batch.size(); round++) {
+            // Rebuild each symbol's payout before the bonus so it can be attributed to its combinations.
+            // The combinations applied to one symbol are stored next to each other.
+            double basePayout = 0.0;
+            int applied = batch.getAppliedCount(round);
+            int start = 0;
+            while (start < applied) {
+                int symbolId = batch.getAppliedSymbolId(round, start);
+                int end = start;
+                double symbolPayout = symbols.rewardMultiplier(symbolId);
+                while (end < applied && batch.getAppliedSymbolId(round, end) == symbolId) {
+                    symbolPayout *= combinations.getMultiplier(batch.getAppliedCombinationId(round, end));
+                    end++;
+                }
+                for (int i = start; i < end; i++) {
+                    accumulator.recordCombination(batch.getAppliedCombinationId(round, i), symbolPayout);
+                }
+                basePayout += symbolPayout;
+                start = end;
+            }
+
+            double payout = batch.getReward(round) / betAmount;
+            if (batch.getBonusSymbolId(round) >= 0) {
+                accumulator.recordBonus(batch.getBonusSymbolId(round), payout - basePayout);
+            }
+            accumulator.recordRound(payout);
+        }
+    }
+
+    private SimulationReport buildReport(SimulationAccumulator accumulator, double betAmount) {
+        long rounds = accumulator.getRounds();
+        double variance = accumulator.getVariance();
+
+        SimulationReport report = new SimulationReport();
+        report.setRounds(rounds);
+        report.setBetting_amount(betAmount);
+        report.setRtp(accumulator.getTotalPayout() / rounds);
+        report.setRtp_standard_error(Math.sqrt(variance / rounds));
+        report.setHit_frequency((double) accumulator.getHits() / rounds);
+        report.setVariance(variance);
+        report.setStandard_deviation(Math.sqrt(variance));
+        report.setMax_win(accumulator.getMaxPayout() * betAmount);
+
+        // A combination is credited with the full payout of every symbol win it took part in,
+        // so contributions of combinations from different groups overlap
+        Map<String, SimulationReport.Contribution> combinationContributions = new LinkedHashMap<>();
+        for (int i = 0; i < combinations.size(); i++) {
+            long hits = accumulator.getCombinationHits(i);
+            combinationContributions.put(combinations.getName(i), new SimulationReport.Contribution(
+                    hits, (double) hits / rounds, accumulator.getCombinationPayout(i) / rounds));
+        }
+        report.setWin_combinations(combinationContributions);
+
+        // A bonus symbol is credited with what it added on top of the winning combinations
+        Map<String, SimulationReport.Contribution> bonusContributions = new LinkedHashMap<>();
+        for (int symbolId = 0; symbolId < symbols.size(); symbolId++) {
+            if (symbols.isBonus(symbolId)) {
+                long triggers = accumulator.getBonusTriggers(symbolId);
+                bonusContributions.put(symbols.name(symbolId), new SimulationReport.Contribution(
+                        triggers, (double) triggers / rounds, accumulator.getBonusPayout(symbolId) / rounds));
+            }
+        }
+        report.setBonus_symbols(bonusContributions);
+
+        return report;
+    }
+}
@@ -0,0 +1,44 @@
+package com.scratchgame.simulation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Map;
+
+@Getter
+@Setter
+public class RareTierReport {
+    private long rounds_per_symbol;
+    private double betting_amount;
+    private double[] tilts;
+    private double base_rtp;
+    private double base_rtp_standard_error;
+    private Map<String, Contribution> symbols;
+    private Map<String, Contribution> win_combinations;
+
+    // Estimates with a normal 95% confidence interval
+    @Getter
+    @Setter
+    public static class Contribution {
+        private double hit_frequency;
+        private double rtp_contribution;
+        private double standard_error;
+        private double ci_low;
+        private double ci_high;
+
+        public Contribution(double hitFrequency, double rtpContribution, double standardError, double z) {
+            this.hit_frequency = hitFrequency;
+            this.rtp_contribution = rtpContribution;
+            this.standard_error = standardError;
+            this.ci_low = rtpContribution - z * standardError;
+            this.ci_high = rtpContribution + z * standardError;
+        }
+    }
+
+    public String toJson() throws Exception {
+        ObjectWriter ow = new ObjectMapper().writer().withDefaultPrettyPrinter();
+        return ow.writeValueAsString(this);
+    }
+}
@@ -0,0 +1,263 @@
+package com.scratchgame.simulation;
+
+import com.scratchgame.compiled.CellTables;
+import com.scratchgame.compiled.CompiledGame;
+import com.scratchgame.compiled.SymbolTable;
+import com.scratchgame.compiled.WinCombinationTable;
+import com.scratchgame.model.Configuration;
+import com.scratchgame.service.Board;
+import com.scratchgame.service.EvaluationContext;
+import com.scratchgame.service.GameEvaluator;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+// Estimates the base payout of every winning combination with importance sampling, so tiers that plain
+// sampling almost never reaches get tight confidence intervals. The payout is split into one stratum per
+// standard symbol, the wins of that symbol. A stratum draws its boards from a mixture of proposals that raise
+// the symbol's probability in every cell to each of the tilts, the zero tilt being the game itself, and
+// weights each board by p(board) / q(board) with q the whole mixture. Bonus symbols are not part of the
+// estimate, like the combination contributions of the plain simulation.
+public class RareTierSimulator {
+    private static final double[] DEFAULT_TILTS = {0.0, 0.35, 0.7};
+    private static final long ROUNDS_PER_TASK = 1 << 16;
+    private static final double Z_95 = 1.959963984540054;
+
+    private final CompiledGame game;
+    private final SymbolTable symbols;
+    private final WinCombinationTable combinations;
+    private final CellTables cellTables;
+    private final int parallelism;
+    private final double[] tilts;
+
+    public RareTierSimulator(Configuration config, int parallelism) {
+        this(CompiledGame.compile(config), parallelism);
+    }
+
+    public RareTierSimulator(CompiledGame game, int parallelism) {
+        this(game, parallelism, DEFAULT_TILTS);
+    }
+
+    // Tilts are the per-cell probabilities of the stratum's symbol under each proposal, 0 keeps the game's own
+    public RareTierSimulator(CompiledGame game, int parallelism, double[] tilts) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        if (tilts.length == 0) {
+            throw new IllegalArgumentException("At least one tilt is required");
+        }
+        for (double tilt : tilts) {
+            if (tilt < 0 || tilt >= 1) {
+                throw new IllegalArgumentException("Tilts must be in [0, 1): " + tilt);
+            }
+        }
+        this.game = game;
+        this.symbols = game.getSymbols();
+        this.combinations = game.getCombinations();
+        this.cellTables = game.getCellTables();
+        this.parallelism = parallelism;
+        this.tilts = tilts.clone();
+    }
+
+    public RareTierReport simulate(long roundsPerSymbol, double betAmount, long seed) {
+        if (roundsPerSymbol < 2) {
+            throw new IllegalArgumentException("At least two rounds per symbol are required");
+        }
+        if (betAmount <= 0) {
+            throw new IllegalArgumentException("Betting amount must be positive");
+        }
+
+        // Tasks and their streams are laid out in a fixed order, so a seed gives the same report on any pool
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Callable<Stratum>> tasks = new ArrayList<>();
+        for (int symbolId = 0; symbolId < symbols.size(); symbolId++) {
+            if (!symbols.isStandard(symbolId)) {
+                continue;
+            }
+            for (long start = 0; start < roundsPerSymbol; start += ROUNDS_PER_TASK) {
+                int stratum = symbolId;
+                long rounds = Math.min(ROUNDS_PER_TASK, roundsPerSymbol - start);
+                SplittableRandom stream = random.split();
+                tasks.add(() -> play(stratum, rounds, betAmount, stream));
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            Stratum[] strata = new Stratum[symbols.size()];
+            for (Future<Stratum> future : pool.invokeAll(tasks)) {
+                Stratum result = future.get();
+                strata[result.symbolId] = strata[result.symbolId] == null ? result : strata[result.symbolId].merge(result);
+            }
+            return buildReport(strata, roundsPerSymbol, betAmount);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulation was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulation failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private Stratum play(int symbolId, long rounds, double betAmount, SplittableRandom random) {
+        int cells = game.getCells();
+
+        // Per proposal and cell, the chance of forcing the symbol and the likelihood ratios q / p of
+        // drawing the symbol or anything else. Cells where the game never draws the symbol are not tilted.
+        double[][] force = new double[tilts.length][cells];
+        double[][] symbolRatio = new double[tilts.length][cells];
+        double[][] otherRatio = new double[tilts.length][cells];
+        for (int proposal = 0; proposal < tilts.length; proposal++) {
+            for (int cell = 0; cell < cells; cell++) {
+                double p = cellTables.probability(cell, symbolId);
+                double alpha = p > 0 && p < tilts[proposal] ? (tilts[proposal] - p) / (1 - p) : 0.0;
+                force[proposal][cell] = alpha;
+                symbolRatio[proposal][cell] = p > 0 ? ((1 - alpha) * p + alpha) / p : 1.0;
+                otherRatio[proposal][cell] = 1 - alpha;
+            }
+        }
+
+        GameEvaluator evaluator = new GameEvaluator(game);
+        EvaluationContext context = evaluator.newContext();
+        Board board = new Board(game.getRows(), game.getColumns());
+        Stratum stratum = new Stratum(symbolId, combinations.size());
+        double[] mixture = new double[tilts.length];
+        for (long round = 0; round < rounds; round++) {
+            int proposal = random.nextInt(tilts.length);
+            Arrays.fill(mixture, 1.0);
+            for (int cell = 0; cell < cells; cell++) {
+                int drawn = random.nextDouble() < force[proposal][cell]
+                        ? symbolId
+                        : cellTables.get(cell).sample(random);
+                board.set(cell, drawn);
+                for (int k = 0; k < tilts.length; k++) {
+                    mixture[k] *= drawn == symbolId ? symbolRatio[k][cell] : otherRatio[k][cell];
+                }
+            }
+            double mixtureRatio = 0.0;
+            for (double ratio : mixture) {
+                mixtureRatio += ratio;
+            }
+            double weight = tilts.length / mixtureRatio;
+
+            // Only the stratum's own symbol counts, the other symbols' wins belong to their strata
+            evaluator.evaluate(board, betAmount, context);
+            double symbolPayout = symbols.rewardMultiplier(symbolId);
+            boolean won = false;
+            for (int i = 0; i < context.getAppliedCount(); i++) {
+                if (context.getAppliedSymbolId(i) == symbolId) {
+                    symbolPayout *= combinations.getMultiplier(context.getAppliedCombinationId(i));
+                    won = true;
+                }
+            }
+            if (won) {
+                stratum.recordWin(weight, weight * symbolPayout);
+                for (int i = 0; i < context.getAppliedCount(); i++) {
+                    if (context.getAppliedSymbolId(i) == symbolId) {
+                        stratum.recordCombination(context.getAppliedCombinationId(i), weight, weight * symbolPayout);
+                    }
+                }
+            }
+        }
+        stratum.rounds = rounds;
+        return stratum;
+    }
+
+    private RareTierReport buildReport(Stratum[] strata, long roundsPerSymbol, double betAmount) {
+        double baseRtp = 0.0;
+        double baseVariance = 0.0;
+        double[] combinationRtp = new double[combinations.size()];
+        double[] combinationVariance = new double[combinations.size()];
+        double[] combinationHits = new double[combinations.size()];
+        Map<String, RareTierReport.Contribution> symbolContributions = new LinkedHashMap<>();
+        for (Stratum stratum : strata) {
+            if (stratum == null) {
+                continue;
+            }
+            double mean = stratum.payout / stratum.rounds;
+            double variance = varianceOfMean(stratum.payout, stratum.payoutSquares, stratum.rounds);
+            baseRtp += mean;
+            baseVariance += variance;
+            symbolContributions.put(symbols.name(stratum.symbolId),
+                    new RareTierReport.Contribution(stratum.hits / stratum.rounds, mean, Math.sqrt(variance), Z_95));
+            for (int c = 0; c < combinationRtp.length; c++) {
+                combinationRtp[c] += stratum.combinationPayout[c] / stratum.rounds;
+                combinationVariance[c] += varianceOfMean(stratum.combinationPayout[c],
+                        stratum.combinationPayoutSquares[c], stratum.rounds);
+                combinationHits[c] += stratum.combinationHits[c] / stratum.rounds;
+            }
+        }
+
+        // As in the plain simulation, a combination is credited with the full payout of every symbol win
+        // it took part in, so contributions of combinations from different groups overlap
+        Map<String, RareTierReport.Contribution> combinationContributions = new LinkedHashMap<>();
+        for (int c = 0; c < combinationRtp.length; c++) {
+            combinationContributions.put(combinations.getName(c), new RareTierReport.Contribution(
+                    combinationHits[c], combinationRtp[c], Math.sqrt(combinationVariance[c]), Z_95));
+        }
+
+        RareTierReport report = new RareTierReport();
+        report.setRounds_per_symbol(roundsPerSymbol);
+        report.setBetting_amount(betAmount);
+        report.setTilts(tilts.clone());
+        report.setBase_rtp(baseRtp);
+        report.setBase_rtp_standard_error(Math.sqrt(baseVariance));
+        report.setSymbols(symbolContributions);
+        report.setWin_combinations(combinationContributions);
+        return report;
+    }
+
+    // Variance of the sample mean from running sums
+    private static double varianceOfMean(double sum, double sumOfSquares, long rounds) {
+        double mean = sum / rounds;
+        return Math.max(0.0, (sumOfSquares - rounds * mean * mean) / (rounds - 1)) / rounds;
+    }
+
+    // Weighted sums of one symbol's stratum, payouts in units of the bet
+    private static class Stratum {
+        private final int symbolId;
+        private long rounds;
+        private double hits;
+        private double payout;
+        private double payoutSquares;
+        private final double[] combinationHits;
+        private final double[] combinationPayout;
+        private final double[] combinationPayoutSquares;
+
+        Stratum(int symbolId, int combinations) {
+            this.symbolId = symbolId;
+            this.combinationHits = new double[combinations];
+            this.combinationPayout = new double[combinations];
+            this.combinationPayoutSquares = new double[combinations];
+        }
+
+        void recordWin(double weight, double weightedPayout) {
+            hits += weight;
+            payout += weightedPayout;
+            payoutSquares += weightedPayout * weightedPayout;
+        }
+
+        void recordCombination(int combination, double weight, double weightedPayout) {
+            combinationHits[combination] += weight;
+            combinationPayout[combination] += weightedPayout;
+            combinationPayoutSquares[combination] += weightedPayout * weightedPayout;
+        }
+
+        Stratum merge(Stratum other) {
+            rounds += other.rounds;
+            hits += other.hits;
+            payout += other.payout;
+            payoutSquares += other.payoutSquares;
+            for (int c = 0; c < combinationHits.length; c++) {
+                combinationHits[c] += other.combinationHits[c];
+                combinationPayout[c] += other.combinationPayout[c];
+                combinationPayoutSquares[c] += other.combinationPayoutSquares[c];
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.scratchgame.simulation;
+
+// Partial results of one worker, merged pairwise once the workers finish
+class SimulationAccumulator {
+    private long rounds;
+    private long hits;
+    private double mean;
+    private double m2;
+    private double totalPayout;
+    private double maxPayout;
+    private final long[] combinationHits;
+    private final double[] combinationPayouts;
+    private final long[] bonusTriggers;
+    private final double[] bonusPayouts;
+
+    SimulationAccumulator(int combinations, int symbols) {
+        this.combinationHits = new long[combinations];
+        this.combinationPayouts = new double[combinations];
+        this.bonusTriggers = new long[symbols];
+        this.bonusPayouts = new double[symbols];
+    }
+
+    // Payouts are recorded in units of the bet so the variance does not depend on the bet amount
+    void recordRound(double payout) {
+        rounds++;
+        if (payout > 0) {
+            hits++;
+        }
+        totalPayout += payout;
+        maxPayout = Math.max(maxPayout, payout);
+
+        // Welford's online update keeps the variance stable over billions of rounds
+        double delta = payout - mean;
+        mean += delta / rounds;
+        m2 += delta * (payout - mean);
+    }
+
+    void recordCombination(int combination, double payout) {
+        combinationHits[combination]++;
+        combinationPayouts[combination] += payout;
+    }
+
+    void recordBonus(int symbolId, double payout) {
+        bonusTriggers[symbolId]++;
+        bonusPayouts[symbolId] += payout;
+    }
+
+    SimulationAccumulator merge(SimulationAccumulator other) {
+        if (other.rounds == 0) {
+            return this;
+        }
+        if (rounds == 0) {
+            return other;
+        }
+
+        // Chan et al. pairwise combination of the running means and squared deviations
+        long combinedRounds = rounds + other.rounds;
+        double delta = other.mean - mean;
+        m2 += other.m2 + delta * delta * ((double) rounds * other.rounds / combinedRounds);
+        mean += delta * other.rounds / combinedRounds;
+        rounds = combinedRounds;
+        hits += other.hits;
+        totalPayout += other.totalPayout;
+        maxPayout = Math.max(maxPayout, other.maxPayout);
+
+        for (int i = 0; i < combinationHits.length; i++) {
+            combinationHits[i] += other.combinationHits[i];
+            combinationPayouts[i] += other.combinationPayouts[i];
+        }
+        for (int i = 0; i < bonusTriggers.length; i++) {
+            bonusTriggers[i] += other.bonusTriggers[i];
+            bonusPayouts[i] += other.bonusPayouts[i];
+        }
+        return this;
+    }
+
+    long getRounds() {
+        return rounds;
+    }
+
+    long getHits() {
+        return hits;
+    }
+
+    double getTotalPayout() {
+        return totalPayout;
+    }
+
+    double getMaxPayout() {
+        return maxPayout;
+    }
+
+    double getVariance() {
+        return rounds > 1 ? m2 / (rounds - 1) : 0.0;
+    }
+
+    long getCombinationHits(int combination) {
+        return combinationHits[combination];
+    }
+
+    double getCombinationPayout(int combination) {
+        return combinationPayouts[combination];
+    }
+
+    long getBonusTriggers(int symbolId) {
+        return bonusTriggers[symbolId];
+    }
+
+    double getBonusPayout(int symbolId) {
+        return bonusPayouts[symbolId];
+    }
+}
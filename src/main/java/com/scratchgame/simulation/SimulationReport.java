@@ -0,0 +1,42 @@
+package com.scratchgame.simulation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Map;
+
+@Getter
+@Setter
+public class SimulationReport {
+    private long rounds;
+    private double betting_amount;
+    private double rtp;
+    private double rtp_standard_error;
+    private double hit_frequency;
+    private double variance;
+    private double standard_deviation;
+    private double max_win;
+    private Map<String, Contribution> win_combinations;
+    private Map<String, Contribution> bonus_symbols;
+
+    @Getter
+    @Setter
+    public static class Contribution {
+        private long hits;
+        private double hit_frequency;
+        private double rtp_contribution;
+
+        public Contribution(long hits, double hitFrequency, double rtpContribution) {
+            this.hits = hits;
+            this.hit_frequency = hitFrequency;
+            this.rtp_contribution = rtpContribution;
+        }
+    }
+
+    public String toJson() throws Exception {
+        ObjectWriter ow = new ObjectMapper().writer().withDefaultPrettyPrinter();
+        return ow.writeValueAsString(this);
+    }
+}
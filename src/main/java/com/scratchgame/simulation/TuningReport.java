@@ -0,0 +1,29 @@
+package com.scratchgame.simulation;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.scratchgame.model.Configuration;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class TuningReport {
+    private boolean within_target;
+    private double rtp;
+    private double hit_frequency;
+    private double volatility;
+    private String estimator;
+    private long rounds_per_candidate;
+    private int generations;
+    private long candidates_evaluated;
+    private long elapsed_millis;
+    @JsonIgnore
+    private Configuration configuration;
+
+    public String toJson() throws Exception {
+        ObjectWriter ow = new ObjectMapper().writer().withDefaultPrettyPrinter();
+        return ow.writeValueAsString(this);
+    }
+}
@@ -0,0 +1,39 @@
+package com.scratchgame.simulation;
+
+import lombok.Getter;
+import lombok.Setter;
+
+// Bands the tuned configuration has to land in. RTP and hit frequency are fractions of the bet and of the
+// rounds played, volatility is the standard deviation of the payout in units of the bet. A null bound is open.
+@Getter
+@Setter
+public class TuningTarget {
+    private Double rtp_min;
+    private Double rtp_max;
+    private Double hit_frequency_min;
+    private Double hit_frequency_max;
+    private Double volatility_min;
+    private Double volatility_max;
+
+    // How far the values lie outside the bands, each band measured in its own width. Zero inside every band.
+    double distance(double rtp, double hitFrequency, double volatility) {
+        return distance(rtp, rtp_min, rtp_max)
+                + distance(hitFrequency, hit_frequency_min, hit_frequency_max)
+                + distance(volatility, volatility_min, volatility_max);
+    }
+
+    private static double distance(double value, Double min, Double max) {
+        double width = min != null && max != null ? Math.max(max - min, 1e-9) : Math.max(Math.abs(value), 1e-9);
+        if (min != null && value < min) {
+            return (min - value) / width;
+        }
+        if (max != null && value > max) {
+            return (value - max) / width;
+        }
+        return 0.0;
+    }
+
+    boolean requiresSimulation() {
+        return volatility_min != null || volatility_max != null;
+    }
+}
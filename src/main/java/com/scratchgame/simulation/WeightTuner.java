@@ -0,0 +1,282 @@
+package com.scratchgame.simulation;
+
+import com.scratchgame.compiled.CompiledGame;
+import com.scratchgame.model.Configuration;
+import com.scratchgame.model.probability.BonusSymbolProbability;
+import com.scratchgame.model.probability.Probabilities;
+import com.scratchgame.model.probability.StandardSymbolProbability;
+import com.scratchgame.service.BatchPlayer;
+
+import java.math.BigInteger;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+// Searches the integer weights of a configuration for a target RTP, hit frequency and volatility. Each
+// generation mutates the best weights found so far and estimates the candidates in parallel. Candidates only
+// recompile their cell tables, symbols and combinations are shared with the base game. Games the exact
+// calculator supports are scored exactly unless a volatility band needs simulation. Simulated candidates all
+// replay the same random stream, so their differences are not drowned in sampling noise.
+public class WeightTuner {
+    // Weights are scaled up to this resolution first, so small weights can move by less than a whole unit
+    private static final int MIN_RESOLUTION = 100;
+    private static final int MAX_WEIGHT = 1_000_000;
+    private static final double INITIAL_STEP = 0.5;
+    private static final double MIN_STEP = 0.02;
+    private static final double STEP_DECAY = 0.7;
+    private static final int MAX_MUTATIONS = 3;
+    private static final int VERIFICATION_FACTOR = 10;
+
+    private final Configuration config;
+    private final CompiledGame game;
+    private final int parallelism;
+    private final long roundsPerCandidate;
+    private final boolean exactSupported;
+    // Every tunable weight is a (distribution, symbol) slot, distributions are the standard entries then the bonus
+    private final List<Map<String, Integer>> distributions;
+    private final int[] slotDistributions;
+    private final String[] slotSymbols;
+
+    public WeightTuner(Configuration config, int parallelism, long roundsPerCandidate) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        if (roundsPerCandidate < 1) {
+            throw new IllegalArgumentException("Rounds per candidate must be positive");
+        }
+        this.config = config;
+        this.game = CompiledGame.compile(config);
+        this.parallelism = parallelism;
+        this.roundsPerCandidate = roundsPerCandidate;
+        this.exactSupported = supportsExact(game);
+
+        this.distributions = new ArrayList<>();
+        for (StandardSymbolProbability probability : config.getProbabilities().getStandard_symbols()) {
+            distributions.add(probability.getSymbols());
+        }
+        distributions.add(config.getProbabilities().getBonus_symbols().getSymbols());
+
+        // Zero weights stay zero, a symbol the configuration left out of a cell is never tuned into it
+        List<Integer> slotDistributionList = new ArrayList<>();
+        List<String> slotSymbolList = new ArrayList<>();
+        for (int distribution = 0; distribution < distributions.size(); distribution++) {
+            for (Map.Entry<String, Integer> entry : distributions.get(distribution).entrySet()) {
+                if (entry.getValue() > 0) {
+                    slotDistributionList.add(distribution);
+                    slotSymbolList.add(entry.getKey());
+                }
+            }
+        }
+        this.slotDistributions = slotDistributionList.stream().mapToInt(Integer::intValue).toArray();
+        this.slotSymbols = slotSymbolList.toArray(new String[0]);
+    }
+
+    private static boolean supportsExact(CompiledGame game) {
+        try {
+            new ExactRtpCalculator(game);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    public TuningReport tune(TuningTarget target, double betAmount, int maxGenerations, long seed) {
+        if (betAmount <= 0) {
+            throw new IllegalArgumentException("Betting amount must be positive");
+        }
+        // Mutations pick among the positive weights, with none there is nothing to tune
+        if (slotSymbols.length == 0) {
+            throw new IllegalArgumentException("Configuration has no positive symbol weight to tune");
+        }
+        long started = System.currentTimeMillis();
+        SplittableRandom random = new SplittableRandom(seed);
+        long streamSeed = random.nextLong();
+        boolean exact = exactSupported && !target.requiresSimulation();
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            Estimate best = estimate(initialWeights(), target, betAmount, exact, streamSeed, roundsPerCandidate);
+            long evaluated = 1;
+            double step = INITIAL_STEP;
+            int generation = 0;
+            int candidatesPerGeneration = Math.max(8, 2 * parallelism);
+            while (generation < maxGenerations && best.distance > 0) {
+                generation++;
+                List<Callable<Estimate>> candidates = new ArrayList<>();
+                for (int i = 0; i < candidatesPerGeneration; i++) {
+                    int[] weights = mutate(best.weights, step, random);
+                    candidates.add(() -> estimate(weights, target, betAmount, exact, streamSeed, roundsPerCandidate));
+                }
+
+                // Futures are read in submission order, so the search does not depend on scheduling
+                Estimate generationBest = null;
+                for (Future<Estimate> future : pool.invokeAll(candidates)) {
+                    Estimate estimate = future.get();
+                    if (generationBest == null || estimate.distance < generationBest.distance) {
+                        generationBest = estimate;
+                    }
+                }
+                evaluated += candidates.size();
+                // Failed generations narrow the mutations, once they are as narrow as allowed the search
+                // widens again to get out of a local minimum
+                if (generationBest.distance < best.distance) {
+                    best = generationBest;
+                } else if (step > MIN_STEP) {
+                    step = Math.max(MIN_STEP, step * STEP_DECAY);
+                } else {
+                    step = INITIAL_STEP;
+                }
+            }
+
+            // The winner is re-estimated on an independent, longer stream, so the reported figures are not
+            // biased by having been selected on the search stream
+            int[] weights = simplify(best.weights);
+            Estimate verified = estimate(weights, target, betAmount, false, random.nextLong(),
+                    roundsPerCandidate * VERIFICATION_FACTOR);
+            if (exactSupported) {
+                Estimate exactEstimate = estimate(weights, target, betAmount, true, 0, 0);
+                verified = new Estimate(weights, exactEstimate.rtp, exactEstimate.hitFrequency,
+                        verified.volatility, target);
+            }
+
+            TuningReport report = new TuningReport();
+            report.setWithin_target(verified.distance == 0);
+            report.setRtp(verified.rtp);
+            report.setHit_frequency(verified.hitFrequency);
+            report.setVolatility(verified.volatility);
+            report.setEstimator(exact ? "exact" : "simulation");
+            report.setRounds_per_candidate(exact ? 0 : roundsPerCandidate);
+            report.setGenerations(generation);
+            report.setCandidates_evaluated(evaluated);
+            report.setElapsed_millis(System.currentTimeMillis() - started);
+            report.setConfiguration(toConfiguration(weights));
+            return report;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Tuning was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Candidate estimation failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private int[] initialWeights() {
+        int[] weights = new int[slotSymbols.length];
+        int smallest = Integer.MAX_VALUE;
+        for (int slot = 0; slot < weights.length; slot++) {
+            weights[slot] = distributions.get(slotDistributions[slot]).get(slotSymbols[slot]);
+            smallest = Math.min(smallest, weights[slot]);
+        }
+
+        // Scaling every weight by the same factor leaves each cell's distribution unchanged
+        int scale = smallest < MIN_RESOLUTION ? (MIN_RESOLUTION + smallest - 1) / smallest : 1;
+        for (int slot = 0; slot < weights.length; slot++) {
+            weights[slot] = (int) Math.min((long) weights[slot] * scale, MAX_WEIGHT);
+        }
+        return weights;
+    }
+
+    private int[] mutate(int[] weights, double step, SplittableRandom random) {
+        int[] candidate = weights.clone();
+        int mutations = 1 + random.nextInt(Math.min(MAX_MUTATIONS, candidate.length));
+        for (int i = 0; i < mutations; i++) {
+            int slot = random.nextInt(candidate.length);
+            double factor = Math.exp(random.nextGaussian() * step);
+            int weight = (int) Math.max(1, Math.min(MAX_WEIGHT, Math.round(candidate[slot] * factor)));
+            if (weight == candidate[slot]) {
+                weight = Math.max(1, Math.min(MAX_WEIGHT, weight + (factor >= 1 ? 1 : -1)));
+            }
+            candidate[slot] = weight;
+        }
+        return candidate;
+    }
+
+    // Divides out the common factor of all weights, which leaves every cell's distribution unchanged
+    private static int[] simplify(int[] weights) {
+        BigInteger divisor = BigInteger.ZERO;
+        for (int weight : weights) {
+            divisor = divisor.gcd(BigInteger.valueOf(weight));
+        }
+        int common = divisor.intValue();
+        int[] simplified = weights.clone();
+        if (common > 1) {
+            for (int slot = 0; slot < simplified.length; slot++) {
+                simplified[slot] /= common;
+            }
+        }
+        return simplified;
+    }
+
+    private Estimate estimate(int[] weights, TuningTarget target, double betAmount, boolean exact,
+                              long streamSeed, long rounds) {
+        CompiledGame candidate = game.withProbabilities(toConfiguration(weights));
+        if (exact) {
+            ExactRtpReport report = new ExactRtpCalculator(candidate).calculate(betAmount);
+            return new Estimate(weights, report.getRtp(), report.getHit_frequency(), 0.0, target);
+        }
+
+        SimulationAccumulator accumulator = new SimulationAccumulator(0, 0);
+        BatchPlayer player = new BatchPlayer(candidate, new SplittableRandom(streamSeed));
+        player.playBatch(rounds, betAmount, batch -> {
+            for (int round = 0; round < batch.size(); round++) {
+                accumulator.recordRound(batch.getReward(round) / betAmount);
+            }
+        });
+        return new Estimate(weights, accumulator.getTotalPayout() / rounds,
+                (double) accumulator.getHits() / rounds, Math.sqrt(accumulator.getVariance()), target);
+    }
+
+    // Copies the probabilities with the given weights, everything else is shared with the base configuration
+    Configuration toConfiguration(int[] weights) {
+        List<Map<String, Integer>> tuned = new ArrayList<>();
+        for (Map<String, Integer> distribution : distributions) {
+            tuned.add(new LinkedHashMap<>(distribution));
+        }
+        for (int slot = 0; slot < weights.length; slot++) {
+            tuned.get(slotDistributions[slot]).put(slotSymbols[slot], weights[slot]);
+        }
+
+        List<StandardSymbolProbability> standardSymbols = new ArrayList<>();
+        List<StandardSymbolProbability> original = config.getProbabilities().getStandard_symbols();
+        for (int i = 0; i < original.size(); i++) {
+            StandardSymbolProbability probability = new StandardSymbolProbability();
+            probability.setRow(original.get(i).getRow());
+            probability.setColumn(original.get(i).getColumn());
+            probability.setSymbols(tuned.get(i));
+            standardSymbols.add(probability);
+        }
+        BonusSymbolProbability bonusSymbols = new BonusSymbolProbability();
+        bonusSymbols.setSymbols(tuned.get(tuned.size() - 1));
+
+        Probabilities probabilities = new Probabilities();
+        probabilities.setStandard_symbols(standardSymbols);
+        probabilities.setBonus_symbols(bonusSymbols);
+
+        Configuration tunedConfig = new Configuration();
+        tunedConfig.setRows(config.getRows());
+        tunedConfig.setColumns(config.getColumns());
+        tunedConfig.setSymbols(config.getSymbols());
+        tunedConfig.setWin_combinations(config.getWin_combinations());
+        tunedConfig.setProbabilities(probabilities);
+        return tunedConfig;
+    }
+
+    private static class Estimate {
+        private final int[] weights;
+        private final double rtp;
+        private final double hitFrequency;
+        private final double volatility;
+        private final double distance;
+
+        Estimate(int[] weights, double rtp, double hitFrequency, double volatility, TuningTarget target) {
+            this.weights = weights;
+            this.rtp = rtp;
+            this.hitFrequency = hitFrequency;
+            this.volatility = volatility;
+            this.distance = target.distance(rtp, hitFrequency, volatility);
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.scratchgame.simulation;
+
+import com.scratchgame.compiled.CellTables;
+import com.scratchgame.compiled.CompiledGame;
+import com.scratchgame.compiled.SymbolTable;
+import com.scratchgame.compiled.WinCombinationTable;
+import com.scratchgame.enums.SymbolImpactEnum;
+import com.scratchgame.model.Configuration;
+import com.scratchgame.service.BatchPlayer;
+import com.scratchgame.service.RoundBatch;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+// Re-estimates RTP and hit frequency of a modified configuration from one stored sample of the base game.
+// Every sampled board keeps the combinations it matches, not only the ones that paid, so changed multipliers
+// are re-scored by picking the best match of every group again. Changed weights are handled by likelihood
+// ratio reweighting: a board drawn under the base weights counts with the product over its cells of
+// p'(symbol) / p(symbol). Only weights and multipliers may change, symbols, areas and tiers must stay the same.
+// Estimates are made at the bet the sample was played with, since extra_bonus rewards do not scale with the bet.
+public class WhatIfEstimator {
+    private final CompiledGame game;
+    private final int rounds;
+    private final int cells;
+    private final double betAmount;
+    private final byte[] boards;
+    private final double[] basePayouts;
+    // Matching combinations of round i are the pairs in [matchOffsets[i], matchOffsets[i + 1]), grouped by symbol
+    private final int[] matchOffsets;
+    private int[] matchSymbolIds;
+    private int[] matchCombinationIds;
+    private final byte[] bonusSymbolIds;
+
+    public WhatIfEstimator(CompiledGame game, int rounds, double betAmount, long seed) {
+        if (rounds < 1) {
+            throw new IllegalArgumentException("Number of rounds must be positive");
+        }
+        if (betAmount <= 0) {
+            throw new IllegalArgumentException("Betting amount must be positive");
+        }
+        // Every board of the sample is kept, one byte per cell, in a single array
+        if ((long) rounds * game.getCells() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Sample of " + rounds + " rounds on " + game.getCells()
+                    + " cells is too large, at most " + Integer.MAX_VALUE / game.getCells() + " rounds fit");
+        }
+        this.game = game;
+        this.rounds = rounds;
+        this.cells = game.getCells();
+        this.betAmount = betAmount;
+        this.boards = new byte[rounds * cells];
+        this.basePayouts = new double[rounds];
+        this.matchOffsets = new int[rounds + 1];
+        this.matchSymbolIds = new int[Math.max(16, rounds / 4)];
+        this.matchCombinationIds = new int[matchSymbolIds.length];
+        this.bonusSymbolIds = new byte[rounds];
+
+        BatchPlayer player = new BatchPlayer(game, new SplittableRandom(seed));
+        int[] next = new int[1];
+        player.playBatch(rounds, betAmount, batch -> {
+            for (int round = 0; round < batch.size(); round++) {
+                record(next[0]++, batch, round);
+            }
+        });
+    }
+
+    private void record(int index, RoundBatch batch, int round) {
+        int offset = index * cells;
+        for (int cell = 0; cell < cells; cell++) {
+            boards[offset + cell] = (byte) batch.getSymbolId(round, cell);
+        }
+        basePayouts[index] = batch.getReward(round) / betAmount;
+        bonusSymbolIds[index] = (byte) firstBonusSymbol(offset);
+        matchOffsets[index + 1] = collectMatches(offset, matchOffsets[index]);
+    }
+
+    private int firstBonusSymbol(int offset) {
+        SymbolTable symbols = game.getSymbols();
+        for (int cell = 0; cell < cells; cell++) {
+            if (symbols.isBonus(boards[offset + cell])) {
+                return boards[offset + cell];
+            }
+        }
+        return -1;
+    }
+
+    // Stores every combination each standard symbol of the board matches, with the evaluator's thresholds
+    private int collectMatches(int offset, int start) {
+        SymbolTable symbols = game.getSymbols();
+        WinCombinationTable combinations = game.getCombinations();
+        int words = WinCombinationTable.wordsFor(cells);
+        int[] counts = new int[symbols.size()];
+        long[] occupancy = new long[symbols.size() * words];
+        for (int cell = 0; cell < cells; cell++) {
+            int symbolId = boards[offset + cell];
+            counts[symbolId]++;
+            occupancy[symbolId * words + (cell >>> 6)] |= 1L << cell;
+        }
+
+        int end = start;
+        for (int symbolId = 0; symbolId < symbols.size(); symbolId++) {
+            int count = counts[symbolId];
+            if (!symbols.isStandard(symbolId) || count < combinations.getMinWinningCount()) {
+                continue;
+            }
+            for (int combination = 0; combination < combinations.size(); combination++) {
+                boolean matches = combinations.isSameSymbols(combination)
+                        ? count >= combinations.getCount(combination)
+                        : combinations.isLinearSymbols(combination) && count >= combinations.getMinLinearCount()
+                        && combinations.coversAnyArea(combination, occupancy, symbolId * words);
+                if (matches) {
+                    if (end == matchSymbolIds.length) {
+                        matchSymbolIds = Arrays.copyOf(matchSymbolIds, end * 2);
+                        matchCombinationIds = Arrays.copyOf(matchCombinationIds, end * 2);
+                    }
+                    matchSymbolIds[end] = symbolId;
+                    matchCombinationIds[end++] = combination;
+                }
+            }
+        }
+        return end;
+    }
+
+    public WhatIfReport estimate(Configuration modified) {
+        return estimate(CompiledGame.compile(modified));
+    }
+
+    public WhatIfReport estimate(CompiledGame modified) {
+        checkSameStructure(modified);
+        double[][] ratios = likelihoodRatios(modified.getCellTables());
+        boolean rescore = !sameMultipliers(modified);
+        int groups = modified.getCombinations().getGroupCount();
+        int[] bestPerGroup = new int[groups];
+
+        double weightSum = 0.0;
+        double weightSquareSum = 0.0;
+        double payoutSum = 0.0;
+        double payoutSquareSum = 0.0;
+        double hitSum = 0.0;
+        for (int round = 0; round < rounds; round++) {
+            double weight = 1.0;
+            if (ratios != null) {
+                int offset = round * cells;
+                for (int cell = 0; cell < cells; cell++) {
+                    weight *= ratios[cell][boards[offset + cell]];
+                }
+            }
+            double payout = rescore ? score(modified, round, bestPerGroup) : basePayouts[round];
+
+            double weighted = weight * payout;
+            weightSum += weight;
+            weightSquareSum += weight * weight;
+            payoutSum += weighted;
+            payoutSquareSum += weighted * weighted;
+            if (payout > 0) {
+                hitSum += weight;
+            }
+        }
+
+        double rtp = payoutSum / rounds;
+        double variance = rounds > 1 ? (payoutSquareSum - rounds * rtp * rtp) / (rounds - 1) : 0.0;
+        double basePayoutSum = 0.0;
+        for (double payout : basePayouts) {
+            basePayoutSum += payout;
+        }
+
+        WhatIfReport report = new WhatIfReport();
+        report.setRounds(rounds);
+        report.setBetting_amount(betAmount);
+        report.setBase_rtp(basePayoutSum / rounds);
+        report.setRtp(rtp);
+        report.setRtp_standard_error(Math.sqrt(Math.max(variance, 0.0) / rounds));
+        report.setHit_frequency(hitSum / rounds);
+        report.setEffective_sample_size(weightSquareSum > 0 ? weightSum * weightSum / weightSquareSum : 0.0);
+        return report;
+    }
+
+    // Replays the evaluator's choice of the best match per group with the modified multipliers
+    private double score(CompiledGame modified, int round, int[] bestPerGroup) {
+        SymbolTable symbols = modified.getSymbols();
+        WinCombinationTable combinations = modified.getCombinations();
+        double total = 0.0;
+        int match = matchOffsets[round];
+        int end = matchOffsets[round + 1];
+        while (match < end) {
+            int symbolId = matchSymbolIds[match];
+            Arrays.fill(bestPerGroup, -1);
+            for (; match < end && matchSymbolIds[match] == symbolId; match++) {
+                int combination = matchCombinationIds[match];
+                int group = combinations.getGroupId(combination);
+                if (combinations.isBetter(combination, bestPerGroup[group])) {
+                    bestPerGroup[group] = combination;
+                }
+            }
+
+            boolean won = false;
+            double multiplier = 1.0;
+            for (int combination : bestPerGroup) {
+                if (combination >= 0) {
+                    won = true;
+                    multiplier *= combinations.getMultiplier(combination);
+                }
+            }
+            if (won) {
+                total += betAmount * symbols.rewardMultiplier(symbolId) * multiplier;
+            }
+        }
+
+        int bonusSymbolId = bonusSymbolIds[round];
+        if (total > 0 && bonusSymbolId >= 0) {
+            if (symbols.impact(bonusSymbolId) == SymbolImpactEnum.multiply_reward) {
+                total *= symbols.rewardMultiplier(bonusSymbolId);
+            } else if (symbols.impact(bonusSymbolId) == SymbolImpactEnum.extra_bonus) {
+                total += symbols.extra(bonusSymbolId);
+            }
+        }
+        return total / betAmount;
+    }
+
+    // p'(symbol) / p(symbol) per cell, or null when no weight changed
+    private double[][] likelihoodRatios(CellTables modified) {
+        CellTables base = game.getCellTables();
+        double[][] ratios = new double[cells][game.getSymbols().size()];
+        boolean changed = false;
+        for (int cell = 0; cell < cells; cell++) {
+            for (int symbolId = 0; symbolId < ratios[cell].length; symbolId++) {
+                double before = base.probability(cell, symbolId);
+                double after = modified.probability(cell, symbolId);
+                if (before == 0 && after > 0) {
+                    throw new IllegalArgumentException("Symbol " + game.getSymbols().name(symbolId)
+                            + " was never drawn in cell " + cell + " of the sample and cannot be reweighted");
+                }
+                ratios[cell][symbolId] = before > 0 ? after / before : 0.0;
+                changed |= ratios[cell][symbolId] != 1.0;
+            }
+        }
+        return changed ? ratios : null;
+    }
+
+    private boolean sameMultipliers(CompiledGame modified) {
+        SymbolTable before = game.getSymbols();
+        SymbolTable after = modified.getSymbols();
+        for (int symbolId = 0; symbolId < before.size(); symbolId++) {
+            if (before.rewardMultiplier(symbolId) != after.rewardMultiplier(symbolId)
+                    || before.impact(symbolId) != after.impact(symbolId)
+                    || before.extra(symbolId) != after.extra(symbolId)) {
+                return false;
+            }
+        }
+        for (int combination = 0; combination < game.getCombinations().size(); combination++) {
+            if (game.getCombinations().getMultiplier(combination) != modified.getCombinations().getMultiplier(combination)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void checkSameStructure(CompiledGame modified) {
+        SymbolTable before = game.getSymbols();
+        SymbolTable after = modified.getSymbols();
+        boolean same = modified.getRows() == game.getRows() && modified.getColumns() == game.getColumns()
+                && after.size() == before.size();
+        for (int symbolId = 0; same && symbolId < before.size(); symbolId++) {
+            same = before.name(symbolId).equals(after.name(symbolId)) && before.type(symbolId) == after.type(symbolId);
+        }
+
+        WinCombinationTable combinations = game.getCombinations();
+        WinCombinationTable modifiedCombinations = modified.getCombinations();
+        same &= modifiedCombinations.size() == combinations.size();
+        for (int combination = 0; same && combination < combinations.size(); combination++) {
+            same = combinations.getName(combination).equals(modifiedCombinations.getName(combination))
+                    && combinations.getWhen(combination) == modifiedCombinations.getWhen(combination)
+                    && combinations.getCount(combination) == modifiedCombinations.getCount(combination)
+                    && combinations.getGroupId(combination) == modifiedCombinations.getGroupId(combination)
+                    && Arrays.deepEquals(combinations.getAreaMasks(combination), modifiedCombinations.getAreaMasks(combination))
+                    && Objects.equals(combinations.getAreaRules(combination), modifiedCombinations.getAreaRules(combination));
+        }
+        if (!same) {
+            throw new IllegalArgumentException("What-if estimates only cover changed weights and multipliers,"
+                    + " symbols, combinations and the board must stay the same");
+        }
+    }
+
+    public int getRounds() {
+        return rounds;
+    }
+
+    public double getBetAmount() {
+        return betAmount;
+    }
+}
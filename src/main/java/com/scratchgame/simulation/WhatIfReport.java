@@ -0,0 +1,24 @@
+package com.scratchgame.simulation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class WhatIfReport {
+    private long rounds;
+    private double betting_amount;
+    private double base_rtp;
+    private double rtp;
+    private double rtp_standard_error;
+    private double hit_frequency;
+    // Rounds an unweighted sample would need for the same precision, far below rounds when weights moved a lot
+    private double effective_sample_size;
+
+    public String toJson() throws Exception {
+        ObjectWriter ow = new ObjectMapper().writer().withDefaultPrettyPrinter();
+        return ow.writeValueAsString(this);
+    }
+}
@@ -1,12 +1,34 @@
 package com.scratchgame.util;
 
 public class CommandLineParser {
+    private static final String USAGE = "Usage: java -jar <your-jar-file> --config <config-file> --betting-amount <amount>"
+            + " [--mode play|simulate|exact|serve|tune|whatif|rare|compile] [--rounds <count>] [--threads <count>] [--seed <seed>]"
+            + " [--round <id>] [--game-hash <hash>] [--sampler alias|cumulative] [--port <port>] [--metrics-interval <seconds>]"
+            + " [--target-rtp <min>:<max>] [--target-hit-frequency <min>:<max>] [--target-volatility <min>:<max>]"
+            + " [--generations <count>] [--candidate-rounds <count>] [--output <file>] [--modified-config <file>]";
+
     private String configFilePath;
     private double bettingAmount;
+    private String mode = "play";
+    private long rounds = 1_000_000;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private Long seed;
+    private long round;
+    private String gameHash;
+    private String sampler;
+    private int port = 8080;
+    private int metricsInterval;
+    private Double[] targetRtp = new Double[2];
+    private Double[] targetHitFrequency = new Double[2];
+    private Double[] targetVolatility = new Double[2];
+    private int generations = 200;
+    private long candidateRounds = 100_000;
+    private String output;
+    private String modifiedConfigFilePath;
 
     public CommandLineParser(String[] args) {
-        if (args.length != 4) {
-            throw new IllegalArgumentException("Usage: java -jar <your-jar-file> --config <config-file> --betting-amount <amount>");
+        if (args.length % 2 != 0) {
+            throw new IllegalArgumentException(USAGE);
         }
 
         for (int i = 0; i < args.length; i += 2) {
@@ -17,10 +39,73 @@ public class CommandLineParser {
                 case "--betting-amount":
                     bettingAmount = Double.parseDouble(args[i + 1]);
                     break;
+                case "--mode":
+                    mode = args[i + 1];
+                    break;
+                case "--rounds":
+                    rounds = Long.parseLong(args[i + 1].replace("_", ""));
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(args[i + 1]);
+                    break;
+                case "--round":
+                    round = Long.parseLong(args[i + 1].replace("_", ""));
+                    break;
+                case "--game-hash":
+                    gameHash = args[i + 1];
+                    break;
+                case "--sampler":
+                    sampler = args[i + 1];
+                    break;
+                case "--port":
+                    port = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--metrics-interval":
+                    metricsInterval = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--target-rtp":
+                    targetRtp = parseRange(args[i + 1]);
+                    break;
+                case "--target-hit-frequency":
+                    targetHitFrequency = parseRange(args[i + 1]);
+                    break;
+                case "--target-volatility":
+                    targetVolatility = parseRange(args[i + 1]);
+                    break;
+                case "--generations":
+                    generations = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--candidate-rounds":
+                    candidateRounds = Long.parseLong(args[i + 1].replace("_", ""));
+                    break;
+                case "--output":
+                    output = args[i + 1];
+                    break;
+                case "--modified-config":
+                    modifiedConfigFilePath = args[i + 1];
+                    break;
                 default:
                     throw new IllegalArgumentException("Unknown argument: " + args[i]);
             }
         }
+
+        if (configFilePath == null) {
+            throw new IllegalArgumentException(USAGE);
+        }
+    }
+
+    // "min:max", either bound may be left empty to leave that side open
+    private static Double[] parseRange(String range) {
+        int separator = range.indexOf(':');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Range must be given as <min>:<max>: " + range);
+        }
+        String min = range.substring(0, separator).trim();
+        String max = range.substring(separator + 1).trim();
+        return new Double[]{min.isEmpty() ? null : Double.valueOf(min), max.isEmpty() ? null : Double.valueOf(max)};
     }
 
     public String getConfigFilePath() {
@@ -31,6 +116,71 @@ public class CommandLineParser {
         return bettingAmount;
     }
 
+    public String getMode() {
+        return mode;
+    }
+
+    public long getRounds() {
+        return rounds;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public Long getSeed() {
+        return seed;
+    }
+
+    public long getRound() {
+        return round;
+    }
+
+    public String getGameHash() {
+        return gameHash;
+    }
+
+    // null unless given, a compiled game keeps the sampler it was compiled with
+    public String getSampler() {
+        return sampler;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public int getMetricsInterval() {
+        return metricsInterval;
+    }
+
+    public Double[] getTargetRtp() {
+        return targetRtp;
+    }
+
+    public Double[] getTargetHitFrequency() {
+        return targetHitFrequency;
+    }
+
+    public Double[] getTargetVolatility() {
+        return targetVolatility;
+    }
+
+    public int getGenerations() {
+        return generations;
+    }
+
+    public long getCandidateRounds() {
+        return candidateRounds;
+    }
+
+    public String getOutput() {
+        return output;
+    }
+
+    public String getModifiedConfigFilePath() {
+        return modifiedConfigFilePath;
+    }
+
     public String getConfigFileRelativePath() {
         String basePath = "src/main/resources/";
         String path = this.getConfigFilePath();
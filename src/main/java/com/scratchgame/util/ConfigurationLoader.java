@@ -1,5 +1,6 @@
 package com.scratchgame.util;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.scratchgame.model.Configuration;
 import com.scratchgame.model.WinningCombination;
@@ -14,6 +15,12 @@ public class ConfigurationLoader {
         return enrichConfig(configuration);
     }
 
+    // Writes a configuration in the format loadConfig reads
+    public static void writeConfig(Configuration configuration, String filePath) throws Exception {
+        ObjectMapper mapper = new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        mapper.writer().withDefaultPrettyPrinter().writeValue(new File(filePath), configuration);
+    }
+
     private static Configuration enrichConfig(Configuration configuration) {
         var winningCombination = configuration.getWin_combinations();
 
@@ -0,0 +1,72 @@
+package com.scratchgame.util;
+
+import com.scratchgame.compiled.CompiledGame;
+import com.scratchgame.compiled.SymbolSampler;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.function.Consumer;
+
+// Recompiles the configuration whenever its file changes and hands the new snapshot to the listener.
+// A file that fails to load or validate is reported and the previous snapshot stays in use.
+public class ConfigurationWatcher implements Closeable {
+    private final Path file;
+    private final String sampler;
+    private final Consumer<CompiledGame> listener;
+    private final WatchService watchService;
+    private final Thread thread;
+
+    public ConfigurationWatcher(Path file, Consumer<CompiledGame> listener) throws IOException {
+        this(file, SymbolSampler.DEFAULT, listener);
+    }
+
+    // Every reload is compiled with the given sampler, so it never changes while the process runs
+    public ConfigurationWatcher(Path file, String sampler, Consumer<CompiledGame> listener) throws IOException {
+        this.file = file.toAbsolutePath();
+        this.sampler = sampler;
+        this.listener = listener;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        // Editors often replace the file instead of writing it in place, so the directory is watched
+        this.file.getParent().register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        this.thread = Thread.ofPlatform().daemon().name("configuration-watcher").unstarted(this::watch);
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (file.getFileName().equals(event.context())) {
+                        changed = true;
+                    }
+                }
+                key.reset();
+                if (changed) {
+                    reload();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Closed
+        }
+    }
+
+    private void reload() {
+        try {
+            listener.accept(CompiledGame.compile(ConfigurationLoader.loadConfig(file.toString()), sampler));
+        } catch (Exception e) {
+            System.err.println("Error: configuration " + file + " was not reloaded: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+}
@@ -0,0 +1,61 @@
+package com.scratchgame.compiled;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AliasTableTest {
+
+    @Test
+    public void testSampleFrequenciesMatchWeights() {
+        int[] symbolIds = {3, 5, 7, 9};
+        int[] weights = {1, 2, 3, 14};
+        AliasTable table = new AliasTable(symbolIds, weights);
+
+        Random random = new Random(42);
+        int[] counts = new int[10];
+        int draws = 200_000;
+        for (int i = 0; i < draws; i++) {
+            counts[table.sample(random)]++;
+        }
+
+        // Only the configured ids can be drawn, each close to its share of the total weight
+        for (int i = 0; i < symbolIds.length; i++) {
+            double expectedProbability = weights[i] / 20.0;
+            double observedProbability = (double) counts[symbolIds[i]] / draws;
+            assertEquals(expectedProbability, observedProbability, 0.01,
+                    "Symbol id " + symbolIds[i] + " should have a probability close to " + expectedProbability);
+        }
+        assertEquals(draws, counts[3] + counts[5] + counts[7] + counts[9]);
+    }
+
+    @Test
+    public void testZeroWeightIsNeverDrawn() {
+        AliasTable table = new AliasTable(new int[]{0, 1, 2}, new int[]{4, 0, 4});
+
+        Random random = new Random(7);
+        for (int i = 0; i < 10_000; i++) {
+            assertNotEquals(1, table.sample(random));
+        }
+    }
+
+    @Test
+    public void testRejectsEmptyWeights() {
+        assertThrows(IllegalArgumentException.class, () -> new AliasTable(new int[]{0, 1}, new int[]{0, 0}));
+    }
+
+    @Test
+    public void testBulkSampleMatchesSingleDraws() {
+        AliasTable table = new AliasTable(new int[]{0, 1, 2}, new int[]{5, 1, 4});
+
+        // Every third slot is filled, in the same order the single draws would produce
+        byte[] out = new byte[300];
+        table.sample(new Random(7), out, 1, 3, 100);
+        Random random = new Random(7);
+        for (int i = 0; i < out.length; i++) {
+            assertEquals(i % 3 == 1 ? table.sample(random) : 0, out[i]);
+        }
+    }
+}
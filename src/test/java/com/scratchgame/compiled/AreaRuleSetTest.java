@@ -0,0 +1,151 @@
+package com.scratchgame.compiled;
+
+import com.scratchgame.enums.AreaRuleTypeEnum;
+import com.scratchgame.model.AreaRule;
+import com.scratchgame.model.Configuration;
+import com.scratchgame.model.WinningCombination;
+import com.scratchgame.service.Board;
+import com.scratchgame.service.GameEvaluator;
+import com.scratchgame.service.GameResult;
+import com.scratchgame.service.MatrixGenerator;
+import com.scratchgame.util.ConfigurationLoader;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AreaRuleSetTest {
+
+    @Test
+    public void testLineRulesMatchTheListedAreas() throws Exception {
+        // 7x7 fits one occupancy word, 9x9 spans two
+        for (int size : new int[]{7, 9}) {
+            Configuration listed = boardConfig(size, false);
+            Configuration generated = boardConfig(size, true);
+            CompiledGame listedGame = CompiledGame.compile(listed);
+            CompiledGame generatedGame = CompiledGame.compile(generated);
+            assertEquals(listedGame.getCombinations().getMinLinearCount(), generatedGame.getCombinations().getMinLinearCount());
+
+            GameEvaluator listedEvaluator = new GameEvaluator(listedGame);
+            GameEvaluator generatedEvaluator = new GameEvaluator(generatedGame);
+            MatrixGenerator generator = new MatrixGenerator(listedGame);
+            Board board = new Board(size, size);
+            SplittableRandom random = new SplittableRandom(size);
+            int wins = 0;
+            for (int round = 0; round < 3000; round++) {
+                generator.generate(board, random);
+                GameResult expected = listedEvaluator.evaluate(board, 100);
+                GameResult actual = generatedEvaluator.evaluate(board, 100);
+                assertEquals(expected.getReward(), actual.getReward(), 0.0);
+                assertEquals(expected.getApplied_winning_combinations(), actual.getApplied_winning_combinations());
+                wins += expected.getReward() > 0 ? 1 : 0;
+            }
+            assertTrue(wins > 100);
+        }
+    }
+
+    @Test
+    public void testClustersNeedOrthogonallyConnectedCells() {
+        AreaRuleSet small = AreaRuleSet.compile(5, 5, new AreaRuleTypeEnum[]{AreaRuleTypeEnum.clusters}, new int[]{5});
+        // Row 0 columns 3-4 and row 1 columns 0-2 are consecutive cells, but not adjacent on the board
+        assertFalse(small.covers(occupancy(1, 3, 4, 5, 6, 7), 0, null));
+        assertTrue(small.covers(occupancy(1, 3, 4, 8, 9, 14), 0, null));
+        assertFalse(small.covers(occupancy(1, 0, 6, 12, 18, 24), 0, null));
+
+        AreaRuleSet large = AreaRuleSet.compile(9, 9, new AreaRuleTypeEnum[]{AreaRuleTypeEnum.clusters}, new int[]{5});
+        long[] scratch = new long[4];
+        assertFalse(large.covers(occupancy(2, 61, 62, 63, 64, 65), 0, scratch));
+        // Crosses from the first occupancy word into the second
+        assertTrue(large.covers(occupancy(2, 61, 62, 70, 71, 79), 0, scratch));
+        assertFalse(large.covers(occupancy(2, 0, 10, 20, 30, 40), 0, scratch));
+        assertTrue(large.hasClusters());
+        assertEquals(0, large.expandLines().length);
+    }
+
+    @Test
+    public void testCompileRejectsInvalidRules() throws Exception {
+        Configuration unknownRule = boardConfig(5, true);
+        unknownRule.getWin_combinations().get("lines").getArea_rules().get(0).setType("spirals");
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> CompiledGame.compile(unknownRule));
+        assertTrue(exception.getMessage().contains("spirals"));
+
+        Configuration missingLength = boardConfig(5, true);
+        missingLength.getWin_combinations().get("windows").getArea_rules().get(0).setLength(null);
+        assertThrows(IllegalArgumentException.class, () -> CompiledGame.compile(missingLength));
+    }
+
+    private static long[] occupancy(int words, int... cells) {
+        long[] occupancy = new long[words];
+        for (int cell : cells) {
+            occupancy[cell >>> 6] |= 1L << cell;
+        }
+        return occupancy;
+    }
+
+    // Every row, column and both diagonals in one group, every window of four cells in another, either
+    // listed cell by cell or generated from rules
+    private static Configuration boardConfig(int size, boolean rules) throws Exception {
+        Configuration config = ConfigurationLoader.loadConfig("src/test/resources/test_config.json");
+        config.setRows(size);
+        config.setColumns(size);
+
+        Map<String, WinningCombination> combinations = new LinkedHashMap<>();
+        combinations.put("lines", combination("lines", 2.0));
+        combinations.put("windows", combination("windows", 3.0));
+        if (rules) {
+            combinations.get("lines").setArea_rules(List.of(rule("rows", null), rule("columns", null), rule("diagonals", null)));
+            combinations.get("windows").setArea_rules(List.of(rule("windows", 4)));
+        } else {
+            List<List<String>> lines = new ArrayList<>();
+            List<List<String>> windows = new ArrayList<>();
+            int[][] directions = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+            for (int[] direction : directions) {
+                for (int row = 0; row < size; row++) {
+                    for (int col = 0; col < size; col++) {
+                        addLine(windows, size, row, col, direction, 4);
+                    }
+                }
+            }
+            for (int i = 0; i < size; i++) {
+                addLine(lines, size, i, 0, directions[0], size);
+                addLine(lines, size, 0, i, directions[1], size);
+            }
+            addLine(lines, size, 0, 0, directions[2], size);
+            addLine(lines, size, 0, size - 1, directions[3], size);
+            combinations.get("lines").setCovered_areas(lines);
+            combinations.get("windows").setCovered_areas(windows);
+        }
+        config.setWin_combinations(combinations);
+        return config;
+    }
+
+    private static void addLine(List<List<String>> areas, int size, int row, int col, int[] direction, int length) {
+        List<String> area = new ArrayList<>();
+        for (int i = 0; i < length; i++) {
+            int r = row + i * direction[0];
+            int c = col + i * direction[1];
+            if (r < 0 || r >= size || c < 0 || c >= size) {
+                return;
+            }
+            area.add(r + ":" + c);
+        }
+        areas.add(area);
+    }
+
+    private static WinningCombination combination(String name, double multiplier) {
+        WinningCombination combination = new WinningCombination();
+        combination.setName(name);
+        combination.setReward_multiplier(multiplier);
+        combination.setWhen("linear_symbols");
+        combination.setGroup(name);
+        return combination;
+    }
+
+    private static AreaRule rule(String type, Integer length) {
+        AreaRule rule = new AreaRule();
+        rule.setType(type);
+        rule.setLength(length);
+        return rule;
+    }
+}
@@ -0,0 +1,81 @@
+package com.scratchgame.compiled;
+
+import com.scratchgame.enums.WinningCombinationWhenEnum;
+import com.scratchgame.model.Configuration;
+import com.scratchgame.util.ConfigurationLoader;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompiledGameTest {
+
+    @Test
+    public void testCompileResolvesConditionsAndGroups() throws Exception {
+        // Load test configuration
+        Configuration config = ConfigurationLoader.loadConfig("src/test/resources/test_config.json");
+        CompiledGame game = CompiledGame.compile(config);
+
+        assertEquals(9, game.getCells());
+        WinCombinationTable combinations = game.getCombinations();
+        assertEquals(11, combinations.size());
+        for (int i = 0; i < combinations.size(); i++) {
+            WinningCombinationWhenEnum expected = combinations.getName(i).startsWith("same_symbol_")
+                    ? WinningCombinationWhenEnum.same_symbols
+                    : WinningCombinationWhenEnum.linear_symbols;
+            assertEquals(expected, combinations.getWhen(i));
+        }
+        assertEquals(5, combinations.getGroupCount());
+    }
+
+    @Test
+    public void testTiersAboveTheBoardSizeAreNeverReached() throws Exception {
+        Configuration config = ConfigurationLoader.loadConfig("src/test/resources/test_config.json");
+        config.getWin_combinations().get("same_symbol_7_times").setCount(Integer.MAX_VALUE);
+        WinCombinationTable combinations = CompiledGame.compile(config).getCombinations();
+
+        // Compiles without sizing the lookup by the count, and the tier below takes its place
+        assertEquals(1, combinations.getSameSymbolsGroups().length);
+        assertEquals("same_symbol_6_times", combinations.getName(combinations.getBestSameSymbols(0, 7)));
+        assertEquals("same_symbol_9_times", combinations.getName(combinations.getBestSameSymbols(0, Integer.MAX_VALUE)));
+    }
+
+    @Test
+    public void testCellsWithIdenticalWeightsShareOneTable() throws Exception {
+        Configuration config = ConfigurationLoader.loadConfig("src/test/resources/test_config.json");
+        SymbolTable symbols = SymbolTable.of(config);
+        CellTables tables = CellTables.compile(config, symbols, "cumulative");
+
+        // (0,0) and (1,0) are configured separately with the same weights, the rest fall back to the first entry
+        assertInstanceOf(CumulativeTable.class, tables.get(0));
+        for (int cell = 1; cell < tables.size(); cell++) {
+            assertSame(tables.get(0), tables.get(cell));
+            assertSame(tables.getWeights(0), tables.getWeights(cell));
+        }
+        assertThrows(IllegalArgumentException.class, () -> CellTables.compile(config, symbols, "unknown"));
+    }
+
+    @Test
+    public void testCompileRejectsInvalidConfiguration() throws Exception {
+        Configuration unknownCondition = ConfigurationLoader.loadConfig("src/test/resources/test_config.json");
+        unknownCondition.getWin_combinations().get("same_symbol_3_times").setWhen("same_symbol");
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> CompiledGame.compile(unknownCondition));
+        assertTrue(exception.getMessage().contains("same_symbol_3_times"));
+
+        Configuration missingMultiplier = ConfigurationLoader.loadConfig("src/test/resources/test_config.json");
+        missingMultiplier.getSymbols().get("A").setReward_multiplier(null);
+        assertThrows(IllegalArgumentException.class, () -> CompiledGame.compile(missingMultiplier));
+
+        Configuration cellOutsideBoard = ConfigurationLoader.loadConfig("src/test/resources/test_config.json");
+        cellOutsideBoard.getProbabilities().getStandard_symbols().get(0).setRow(3);
+        assertThrows(IllegalArgumentException.class, () -> CompiledGame.compile(cellOutsideBoard));
+
+        Configuration areaOutsideBoard = ConfigurationLoader.loadConfig("src/test/resources/test_config.json");
+        areaOutsideBoard.getWin_combinations().get("same_symbols_horizontally").getCovered_areas().get(0).set(0, "3:0");
+        exception = assertThrows(IllegalArgumentException.class, () -> CompiledGame.compile(areaOutsideBoard));
+        assertTrue(exception.getMessage().contains("same_symbols_horizontally") && exception.getMessage().contains("3:0"));
+
+        Configuration bonusAsStandard = ConfigurationLoader.loadConfig("src/test/resources/test_config.json");
+        bonusAsStandard.getProbabilities().getStandard_symbols().get(0).getSymbols().put("10x", 1);
+        assertThrows(IllegalArgumentException.class, () -> CompiledGame.compile(bonusAsStandard));
+    }
+}
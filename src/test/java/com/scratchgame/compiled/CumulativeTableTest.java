@@ -0,0 +1,76 @@
+package com.scratchgame.compiled;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.random.RandomGenerator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CumulativeTableTest {
+
+    @Test
+    public void testEveryDrawMapsToExactlyWeightValues() {
+        int[] symbolIds = {3, 5, 7, 9};
+        int[] weights = {1, 2, 0, 14};
+        CumulativeTable table = new CumulativeTable(symbolIds, weights);
+        assertEquals(17, table.getTotalWeight());
+        assertEquals(3, table.size());
+
+        // Walking every value once draws each symbol exactly its weight, heaviest first
+        int[] counts = new int[10];
+        for (int value = 0; value < table.getTotalWeight(); value++) {
+            counts[table.select(value)]++;
+        }
+        assertArrayEquals(new int[]{0, 0, 0, 1, 0, 2, 0, 0, 0, 14}, counts);
+        assertEquals(9, table.select(0));
+        assertEquals(9, table.select(13));
+        assertEquals(5, table.select(14));
+        assertEquals(3, table.select(16));
+    }
+
+    @Test
+    public void testSampleUsesOneBoundedDrawPerSymbol() {
+        CumulativeTable table = new CumulativeTable(new int[]{0, 1, 2}, new int[]{5, 1, 4});
+
+        RandomGenerator counter = new RandomGenerator() {
+            private int next;
+
+            @Override
+            public long nextLong() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public int nextInt(int bound) {
+                assertEquals(10, bound);
+                return next++ % bound;
+            }
+        };
+        int[] counts = new int[3];
+        for (int i = 0; i < 100; i++) {
+            counts[table.sample(counter)]++;
+        }
+        assertArrayEquals(new int[]{50, 10, 40}, counts);
+    }
+
+    @Test
+    public void testBulkSampleMatchesSingleDraws() {
+        CumulativeTable table = new CumulativeTable(new int[]{0, 1, 2}, new int[]{5, 1, 4});
+
+        byte[] out = new byte[300];
+        table.sample(new Random(7), out, 1, 3, 100);
+        Random random = new Random(7);
+        for (int i = 0; i < out.length; i++) {
+            assertEquals(i % 3 == 1 ? table.sample(random) : 0, out[i]);
+        }
+    }
+
+    @Test
+    public void testRejectsInvalidWeights() {
+        assertThrows(IllegalArgumentException.class, () -> new CumulativeTable(new int[]{0, 1}, new int[]{0, 0}));
+        assertThrows(IllegalArgumentException.class, () -> new CumulativeTable(new int[]{0, 1}, new int[]{1, -1}));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CumulativeTable(new int[]{0, 1}, new int[]{Integer.MAX_VALUE, 1}));
+    }
+}
@@ -0,0 +1,107 @@
+package com.scratchgame.compiled;
+
+import com.scratchgame.model.AreaRule;
+import com.scratchgame.model.Configuration;
+import com.scratchgame.model.WinningCombination;
+import com.scratchgame.service.GameResult;
+import com.scratchgame.service.RoundReplayer;
+import com.scratchgame.simulation.ExactRtpCalculator;
+import com.scratchgame.util.ConfigurationLoader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testSnapshotPlaysTheSameRoundsAsTheConfiguration() throws Exception {
+        Configuration config = ConfigurationLoader.loadConfig("src/test/resources/test_config.json");
+        WinningCombination windows = new WinningCombination();
+        windows.setName("windows_of_two");
+        windows.setReward_multiplier(1.5);
+        windows.setWhen("linear_symbols");
+        windows.setGroup("windows");
+        AreaRule rule = new AreaRule();
+        rule.setType("windows");
+        rule.setLength(2);
+        windows.setArea_rules(List.of(rule));
+        config.getWin_combinations().put(windows.getName(), windows);
+        CompiledGame game = CompiledGame.compile(config);
+        Path snapshot = directory.resolve("game.bin");
+        GameSnapshot.write(game, snapshot);
+
+        assertTrue(GameSnapshot.isSnapshot(snapshot));
+        assertFalse(GameSnapshot.isSnapshot(Path.of("src/test/resources/test_config.json")));
+        CompiledGame loaded = GameSnapshot.read(snapshot);
+        assertEquals(game.getRows(), loaded.getRows());
+        assertEquals(game.getColumns(), loaded.getColumns());
+        assertEquals(game.getHash(), loaded.getHash());
+        assertSame(loaded.getCellTables().get(0), loaded.getCellTables().get(loaded.getCells() - 1));
+        int combination = game.getCombinations().size() - 1;
+        assertEquals(game.getCombinations().getAreaRules(combination), loaded.getCombinations().getAreaRules(combination));
+
+        // Tables are rebuilt from their entries in sampling order, so seeded rounds come out identical
+        RoundReplayer original = new RoundReplayer(game, 99);
+        RoundReplayer restored = new RoundReplayer(loaded, 99);
+        for (int round = 0; round < 200; round++) {
+            GameResult expected = original.replay(round, 100);
+            GameResult actual = restored.replay(round, 100);
+            assertTrue(Arrays.deepEquals(expected.getMatrix(), actual.getMatrix()));
+            assertEquals(expected.getReward(), actual.getReward(), 0.0);
+            assertEquals(expected.getApplied_winning_combinations(), actual.getApplied_winning_combinations());
+            assertEquals(expected.getApplied_bonus_symbol(), actual.getApplied_bonus_symbol());
+        }
+        assertEquals(new ExactRtpCalculator(game).calculate(100).getRtp(),
+                new ExactRtpCalculator(loaded).calculate(100).getRtp(), 0.0);
+    }
+
+    @Test
+    public void testSnapshotKeepsTheSampler() throws Exception {
+        Configuration config = ConfigurationLoader.loadConfig("src/test/resources/test_config.json");
+        CompiledGame cumulative = CompiledGame.compile(config, "cumulative");
+        Path snapshot = directory.resolve("game.bin");
+        GameSnapshot.write(cumulative, snapshot);
+        CompiledGame loaded = GameSnapshot.read(snapshot);
+        assertEquals("cumulative", loaded.getSampler());
+
+        // Seeded rounds follow the recorded sampler, not the default
+        RoundReplayer original = new RoundReplayer(cumulative, 5);
+        RoundReplayer restored = new RoundReplayer(loaded, 5);
+        RoundReplayer alias = new RoundReplayer(CompiledGame.compile(config), 5);
+        int differing = 0;
+        for (int round = 0; round < 50; round++) {
+            String[][] board = restored.replay(round, 100).getMatrix();
+            assertTrue(Arrays.deepEquals(original.replay(round, 100).getMatrix(), board));
+            differing += Arrays.deepEquals(alias.replay(round, 100).getMatrix(), board) ? 0 : 1;
+        }
+        assertTrue(differing > 0);
+    }
+
+    @Test
+    public void testReadRejectsDamagedSnapshots() throws Exception {
+        Configuration config = ConfigurationLoader.loadConfig("src/test/resources/test_config.json");
+        Path snapshot = directory.resolve("game.bin");
+        GameSnapshot.write(CompiledGame.compile(config), snapshot);
+        byte[] bytes = Files.readAllBytes(snapshot);
+
+        byte[] flipped = bytes.clone();
+        flipped[bytes.length / 2] ^= 1;
+        Files.write(snapshot, flipped);
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> GameSnapshot.read(snapshot));
+        assertTrue(exception.getMessage().contains("checksum"));
+
+        Files.write(snapshot, Arrays.copyOf(bytes, 12));
+        assertThrows(IllegalArgumentException.class, () -> GameSnapshot.read(snapshot));
+
+        assertThrows(IllegalArgumentException.class, () -> GameSnapshot.read(Path.of("src/test/resources/test_config.json")));
+    }
+}
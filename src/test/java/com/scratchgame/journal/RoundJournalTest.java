@@ -0,0 +1,94 @@
+package com.scratchgame.journal;
+
+import com.scratchgame.compiled.CompiledGame;
+import com.scratchgame.model.Configuration;
+import com.scratchgame.service.BatchPlayer;
+import com.scratchgame.service.RoundBatch;
+import com.scratchgame.util.ConfigurationLoader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Random;
+import java.util.SortedMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RoundJournalTest {
+    private static final long DAY = 86_400_000L;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testJournalRoundTripsAndAggregates() throws Exception {
+        // Load test configuration
+        Configuration config = ConfigurationLoader.loadConfig("src/test/resources/test_config.json");
+        Path path = directory.resolve("rounds.journal");
+
+        BatchPlayer player = new BatchPlayer(config, new Random(3));
+        RoundBatch batch = player.playBatch(3000, 10);
+        double firstDayReward = 0;
+        double maxReward = 0;
+        try (RoundJournalWriter writer = new RoundJournalWriter(path, config)) {
+            for (int round = 0; round < 2000; round++) {
+                writer.append(round, 77, round * DAY / 1000, batch, round);
+            }
+        }
+        // Reopening continues after the last record
+        try (RoundJournalWriter writer = new RoundJournalWriter(path, config)) {
+            for (int round = 2000; round < batch.size(); round++) {
+                writer.append(round, 77, round * DAY / 1000, batch, round);
+            }
+            assertEquals(3000, writer.size());
+        }
+        for (int round = 0; round < batch.size(); round++) {
+            if (round < 1000) {
+                firstDayReward += batch.getReward(round);
+            }
+            maxReward = Math.max(maxReward, batch.getReward(round));
+        }
+
+        // Rounds of another game, here drawn with another sampler, would not replay from their seeds
+        assertThrows(IllegalArgumentException.class,
+                () -> new RoundJournalWriter(path, CompiledGame.compile(config, "cumulative")).close());
+
+        try (RoundJournalReader reader = new RoundJournalReader(path)) {
+            assertEquals(3000, reader.size());
+            assertEquals(CompiledGame.compile(config).getHash(), reader.getGameHash());
+
+            // Every field is read back in place
+            for (int round = 0; round < batch.size(); round += 97) {
+                JournalRecord record = reader.get(round);
+                assertEquals(round, record.getRoundId());
+                assertEquals(77, record.getSeed());
+                assertEquals(batch.getReward(round), record.getReward());
+                assertEquals(batch.getBonusSymbolId(round), record.getBonusSymbolId());
+                for (int cell = 0; cell < record.getCells(); cell++) {
+                    assertEquals(batch.getSymbolId(round, cell), record.getSymbolId(cell));
+                }
+                for (int i = 0; i < batch.getAppliedCount(round); i++) {
+                    assertTrue(record.hasCombination(batch.getAppliedCombinationId(round, i)));
+                }
+            }
+
+            // A thousand rounds per day over three days
+            SortedMap<LocalDate, DailyRtp> days = reader.rtpByDay(ZoneOffset.UTC);
+            assertEquals(3, days.size());
+            DailyRtp first = days.get(LocalDate.of(1970, 1, 1));
+            assertEquals(1000, first.getRounds());
+            assertEquals(10_000, first.getTotal_bet(), 0.001);
+            assertEquals(firstDayReward, first.getTotal_reward(), 0.001);
+
+            List<TopWin> wins = reader.topWins(5);
+            assertEquals(5, wins.size());
+            assertEquals(maxReward, wins.get(0).getReward());
+            for (int i = 1; i < wins.size(); i++) {
+                assertTrue(wins.get(i - 1).getReward() >= wins.get(i).getReward());
+            }
+        }
+    }
+}
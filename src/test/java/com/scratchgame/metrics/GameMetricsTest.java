@@ -0,0 +1,107 @@
+package com.scratchgame.metrics;
+
+import com.scratchgame.compiled.CompiledGame;
+import com.scratchgame.model.Configuration;
+import com.scratchgame.random.RandomSource;
+import com.scratchgame.service.*;
+import com.scratchgame.util.ConfigurationLoader;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameMetricsTest {
+
+    @Test
+    public void testBatchesAreCountedLikeSingleRounds() throws Exception {
+        // Load test configuration
+        Configuration config = ConfigurationLoader.loadConfig("src/test/resources/test_config.json");
+        CompiledGame game = CompiledGame.compile(config);
+        GameEvaluator evaluator = new GameEvaluator(game);
+        GameMetrics metrics = new GameMetrics();
+        BatchPlayer player = new BatchPlayer(new MatrixGenerator(game, RandomSource.of(new SplittableRandom(3))),
+                evaluator, metrics);
+
+        RoundBatch batch = player.playBatch(5000, 10);
+
+        // Counting the materialized results one by one gives the same totals as the batch tally
+        GameMetrics expected = new GameMetrics();
+        for (int round = 0; round < batch.size(); round++) {
+            expected.recordRound(10, player.toResult(round));
+        }
+        assertEquals(5000, metrics.getRounds());
+        assertEquals(expected.getWinningRounds(), metrics.getWinningRounds());
+        assertEquals(50_000, metrics.getTotalBet(), 1e-9);
+        assertEquals(batch.getTotalReward(), metrics.getTotalReward(), 1e-6);
+        assertEquals(expected.getRtp(), metrics.getRtp(), 1e-9);
+        assertEquals(expected.getCombinationCounts(), metrics.getCombinationCounts());
+        assertEquals(expected.getBonusCounts(), metrics.getBonusCounts());
+        assertTrue(metrics.getHitRate() > 0 && metrics.getHitRate() < 1);
+        assertTrue(metrics.getGenerateP99Nanos() >= metrics.getGenerateP50Nanos());
+
+        // An empty batch changes nothing
+        assertEquals(0, player.playBatch(0, 10).size());
+        assertEquals(5000, metrics.getRounds());
+    }
+
+    @Test
+    public void testSingleRoundCounts() {
+        GameMetrics metrics = new GameMetrics();
+        Map<String, List<String>> applied = new HashMap<>();
+        applied.put("A", List.of("same_symbol_3_times", "same_symbols_vertically"));
+        metrics.recordRound(100, new GameResult((String[][]) null, 2500, applied, "+1000"));
+        metrics.recordRound(100, new GameResult((String[][]) null, 0, Map.of(), null));
+
+        assertEquals(2, metrics.getRounds());
+        assertEquals(0.5, metrics.getHitRate(), 1e-9);
+        assertEquals(12.5, metrics.getRtp(), 1e-9);
+        assertEquals(Map.of("same_symbol_3_times", 1L, "same_symbols_vertically", 1L), metrics.getCombinationCounts());
+        assertEquals(Map.of("+1000", 1L), metrics.getBonusCounts());
+
+        metrics.reset();
+        assertEquals(0, metrics.getRounds());
+        assertEquals(0.0, metrics.getRtp());
+    }
+
+    @Test
+    public void testReporterPublishesMXBean() throws Exception {
+        GameMetrics metrics = new GameMetrics();
+        metrics.recordRound(10, new GameResult((String[][]) null, 20, Map.of(), null));
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(MetricsReporter.OBJECT_NAME);
+        try (MetricsReporter reporter = new MetricsReporter(metrics, Duration.ZERO, System.err)) {
+            assertEquals(1L, server.getAttribute(name, "Rounds"));
+            assertEquals(2.0, (Double) server.getAttribute(name, "Rtp"), 1e-9);
+        }
+        assertFalse(server.isRegistered(name));
+    }
+
+    @Test
+    public void testHistogramPercentilesWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(5000.5, histogram.getMean(), 1e-9);
+        // Reported values are the top of a bucket, at most 1/16 above the exact percentile
+        assertEquals(5000, histogram.getValueAtPercentile(50), 5000 / 16.0);
+        assertTrue(histogram.getValueAtPercentile(50) >= 5000);
+        assertEquals(9900, histogram.getValueAtPercentile(99), 9900 / 16.0);
+        assertEquals(31, LatencyHistogram.highestValueOf(LatencyHistogram.indexOf(31)));
+        for (long value : new long[]{32, 1000, 123_456_789L, Long.MAX_VALUE}) {
+            long highest = LatencyHistogram.highestValueOf(LatencyHistogram.indexOf(value));
+            assertTrue(highest >= value && highest - value <= value / 16, "Bucket of " + value);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.scratchgame.random;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.random.RandomGenerator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SplittableRandomSourceTest {
+
+    @Test
+    public void testSameSeedReproducesStreams() throws Exception {
+        SplittableRandomSource first = RandomSource.seeded(11);
+        SplittableRandomSource second = RandomSource.seeded(11);
+
+        // Sources split in the same order draw the same values
+        assertEquals(first.split().current().nextLong(), second.split().current().nextLong());
+        assertEquals(first.current().nextLong(), second.current().nextLong());
+
+        // Another thread gets its own stream instead of sharing the caller's generator
+        RandomGenerator[] otherThread = new RandomGenerator[1];
+        Thread thread = new Thread(() -> otherThread[0] = first.current());
+        thread.start();
+        thread.join();
+        assertNotSame(first.current(), otherThread[0]);
+        assertSame(first.current(), first.current());
+    }
+
+    @Test
+    public void testRejectsUnsplittableAlgorithm() {
+        assertThrows(IllegalArgumentException.class, () -> new SplittableRandomSource("Random", 1));
+        assertThrows(IllegalArgumentException.class, () -> new SplittableRandomSource("NoSuchRandom", 1));
+    }
+}
@@ -0,0 +1,140 @@
+package com.scratchgame.server;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.scratchgame.compiled.CompiledGame;
+import com.scratchgame.model.Configuration;
+import com.scratchgame.service.GameResult;
+import com.scratchgame.service.RoundReplayer;
+import com.scratchgame.util.ConfigurationLoader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameServerTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newHttpClient();
+    private Configuration config;
+    private GameServer server;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        // Load test configuration and bind to an ephemeral local port
+        config = ConfigurationLoader.loadConfig("src/test/resources/test_config.json");
+        server = new GameServer(config, new InetSocketAddress("localhost", 0));
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    public void testPlayReturnsRound() throws Exception {
+        HttpResponse<String> response = client.send(post("/play", "{\"betting_amount\": 100}"), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode());
+        JsonNode round = mapper.readTree(response.body());
+        assertEquals(3, round.get("matrix").size());
+        assertTrue(round.get("reward").asDouble() >= 0);
+    }
+
+    @Test
+    public void testConcurrentBatchesStreamRequestedRounds() throws Exception {
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            responses.add(client.sendAsync(post("/play/batch", "{\"betting_amount\": 10, \"count\": 500}"), HttpResponse.BodyHandlers.ofString()));
+        }
+
+        for (CompletableFuture<HttpResponse<String>> future : responses) {
+            HttpResponse<String> response = future.get();
+            assertEquals(200, response.statusCode());
+            String[] lines = response.body().split("\n");
+            assertEquals(500, lines.length);
+            assertTrue(mapper.readTree(lines[0]).has("matrix"));
+        }
+    }
+
+    @Test
+    public void testSeededRoundsCanBeReplayed() throws Exception {
+        GameServer seeded = new GameServer(CompiledGame.compile(config), new InetSocketAddress("localhost", 0), 99L, 10);
+        seeded.start();
+        try {
+            String base = "http://localhost:" + seeded.getAddress().getPort();
+            HttpRequest request = HttpRequest.newBuilder(URI.create(base + "/play"))
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"betting_amount\": 100}")).build();
+            client.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+            // Round ids are handed out in order and the round is rebuilt from the seed, its id and the game hash
+            assertEquals("11", response.headers().firstValue("X-Round-Id").orElseThrow());
+            String hash = response.headers().firstValue("X-Game-Hash").orElseThrow();
+            RoundReplayer replayer = new RoundReplayer(config, 99L);
+            GameResult replayed = replayer.replay(11, hash, 100);
+            assertEquals(mapper.readTree(replayed.toJson()), mapper.readTree(response.body()));
+
+            // Batches reserve the following ids, every line carries its own
+            HttpRequest batch = HttpRequest.newBuilder(URI.create(base + "/play/batch"))
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"betting_amount\": 100, \"count\": 5000}")).build();
+            HttpResponse<String> batchResponse = client.send(batch, HttpResponse.BodyHandlers.ofString());
+            assertEquals(hash, batchResponse.headers().firstValue("X-Game-Hash").orElseThrow());
+            String[] lines = batchResponse.body().split("\n");
+            assertEquals(5000, lines.length);
+            for (int i = 0; i < lines.length; i += 499) {
+                JsonNode round = mapper.readTree(lines[i]);
+                assertEquals(12 + i, round.get("round_id").asLong());
+                ((ObjectNode) round).remove("round_id");
+                assertEquals(mapper.readTree(replayer.replay(12 + i, hash, 100).toJson()), round);
+            }
+
+            // After a reload round ids keep counting on a game with another hash
+            Configuration changed = ConfigurationLoader.loadConfig("src/test/resources/test_config.json");
+            changed.getSymbols().get("A").setReward_multiplier(7.0);
+            seeded.reload(CompiledGame.compile(changed));
+            HttpResponse<String> reloaded = client.send(request, HttpResponse.BodyHandlers.ofString());
+            assertEquals("5012", reloaded.headers().firstValue("X-Round-Id").orElseThrow());
+            String reloadedHash = reloaded.headers().firstValue("X-Game-Hash").orElseThrow();
+            assertNotEquals(hash, reloadedHash);
+            assertThrows(IllegalArgumentException.class, () -> replayer.replay(5012, reloadedHash, 100));
+            assertEquals(mapper.readTree(new RoundReplayer(changed, 99L).replay(5012, reloadedHash, 100).toJson()),
+                    mapper.readTree(reloaded.body()));
+        } finally {
+            seeded.stop();
+        }
+    }
+
+    @Test
+    public void testInvalidRequestsAreRejected() throws Exception {
+        assertEquals(400, client.send(post("/play/batch", "{\"count\": 0}"), HttpResponse.BodyHandlers.ofString()).statusCode());
+        assertEquals(400, client.send(post("/play", "not json"), HttpResponse.BodyHandlers.ofString()).statusCode());
+
+        HttpRequest get = HttpRequest.newBuilder(uri("/play")).GET().build();
+        assertEquals(405, client.send(get, HttpResponse.BodyHandlers.ofString()).statusCode());
+
+        // Contexts match by prefix, anything past the exact paths is not an endpoint
+        assertEquals(404, client.send(post("/playground", ""), HttpResponse.BodyHandlers.ofString()).statusCode());
+        assertEquals(404, client.send(post("/play/other", ""), HttpResponse.BodyHandlers.ofString()).statusCode());
+        assertEquals(404, client.send(post("/play/batch/extra", ""), HttpResponse.BodyHandlers.ofString()).statusCode());
+    }
+
+    private HttpRequest post(String path, String body) {
+        return HttpRequest.newBuilder(uri(path)).POST(HttpRequest.BodyPublishers.ofString(body)).build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + server.getAddress().getPort() + path);
+    }
+}
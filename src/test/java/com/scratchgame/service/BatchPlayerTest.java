@@ -0,0 +1,60 @@
+package com.scratchgame.service;
+
+import com.scratchgame.model.Configuration;
+import com.scratchgame.util.ConfigurationLoader;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchPlayerTest {
+
+    @Test
+    public void testBatchMatchesSingleRoundEvaluation() throws Exception {
+        // Load test configuration
+        Configuration config = ConfigurationLoader.loadConfig("src/test/resources/test_config.json");
+
+        BatchPlayer player = new BatchPlayer(config, new Random(5));
+        RoundBatch batch = player.playBatch(2000, 100);
+        GameEvaluator evaluator = new GameEvaluator(config, player.getSymbols());
+
+        assertEquals(2000, batch.size());
+        for (int round = 0; round < batch.size(); round++) {
+            // Every buffered board evaluates to the reward and combinations stored next to it
+            Board board = new Board(config.getRows(), config.getColumns());
+            batch.copyBoard(round, board);
+            GameResult expected = evaluator.evaluate(board, 100);
+            GameResult actual = player.toResult(round);
+
+            assertEquals(expected.getReward(), batch.getReward(round), 0.001);
+            assertEquals(expected.getApplied_bonus_symbol(), actual.getApplied_bonus_symbol());
+            assertEquals(expected.getApplied_winning_combinations(), actual.getApplied_winning_combinations());
+            int appliedCount = expected.getApplied_winning_combinations().values().stream().mapToInt(java.util.List::size).sum();
+            assertEquals(appliedCount, batch.getAppliedCount(round));
+        }
+    }
+
+    @Test
+    public void testStreamingPlaysRequestedRoundsInChunks() throws Exception {
+        // Load test configuration
+        Configuration config = ConfigurationLoader.loadConfig("src/test/resources/test_config.json");
+
+        BatchPlayer player = new BatchPlayer(config, new Random(9));
+        long[] rounds = new long[1];
+        player.playBatch(10_000, 1, batch -> rounds[0] += batch.size());
+
+        assertEquals(10_000, rounds[0]);
+    }
+
+    @Test
+    public void testBatchTooLargeForOneBufferIsRejected() throws Exception {
+        Configuration config = ConfigurationLoader.loadConfig("src/test/resources/test_config.json");
+        BatchPlayer player = new BatchPlayer(config, new Random(5));
+
+        // Nine cells per board would overflow the int size of the board buffer
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> player.playBatch(Integer.MAX_VALUE / 4, 100));
+        assertTrue(exception.getMessage().contains("too large"));
+    }
+}
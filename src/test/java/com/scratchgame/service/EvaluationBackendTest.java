@@ -0,0 +1,79 @@
+package com.scratchgame.service;
+
+import com.scratchgame.compiled.CompiledGame;
+import com.scratchgame.model.AreaRule;
+import com.scratchgame.model.Configuration;
+import com.scratchgame.model.WinningCombination;
+import com.scratchgame.util.ConfigurationLoader;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EvaluationBackendTest {
+
+    @Test
+    public void testVectorBackendMatchesScalarBackend() throws Exception {
+        // Load test configuration, once as configured and once on a board spanning two occupancy words
+        Configuration small = ConfigurationLoader.loadConfig("src/test/resources/test_config.json");
+        Configuration large = ConfigurationLoader.loadConfig("src/test/resources/test_config.json");
+        large.setRows(9);
+        large.setColumns(9);
+
+        for (Configuration config : new Configuration[]{small, large}) {
+            // Rule-based areas are matched outside the flat area layout
+            WinningCombination generated = new WinningCombination();
+            generated.setName("generated_areas");
+            generated.setReward_multiplier(4.0);
+            generated.setWhen("linear_symbols");
+            generated.setGroup("generated_areas");
+            generated.setArea_rules(List.of(rule("windows", 3), rule("clusters", 4)));
+            config.getWin_combinations().put(generated.getName(), generated);
+
+            CompiledGame game = CompiledGame.compile(config);
+            EvaluationBackend scalar = new ScalarEvaluationBackend(game.getSymbols(), game.getCombinations());
+            EvaluationBackend vector = new VectorEvaluationBackend(game.getSymbols(), game.getCombinations());
+            GameEvaluator evaluator = new GameEvaluator(game);
+            EvaluationContext scalarContext = evaluator.newContext();
+            EvaluationContext vectorContext = evaluator.newContext();
+            MatrixGenerator generator = new MatrixGenerator(game);
+            Board board = new Board(game.getRows(), game.getColumns());
+            SplittableRandom random = new SplittableRandom(17);
+
+            for (int round = 0; round < 2000; round++) {
+                generator.generate(board, random);
+                scalarContext.reset();
+                vectorContext.reset();
+                scalar.scan(board.cells(), 0, board.size(), scalarContext);
+                vector.scan(board.cells(), 0, board.size(), vectorContext);
+
+                assertEquals(scalarContext.presentCount, vectorContext.presentCount);
+                assertArrayEquals(scalarContext.symbolCounts, vectorContext.symbolCounts);
+                assertArrayEquals(scalarContext.symbolOccupancy, vectorContext.symbolOccupancy);
+
+                for (int i = 0; i < scalarContext.presentCount; i++) {
+                    int symbolId = scalarContext.presentSymbols[i];
+                    assertEquals(symbolId, vectorContext.presentSymbols[i]);
+
+                    int[] scalarBest = new int[game.getCombinations().getGroupCount()];
+                    int[] vectorBest = new int[scalarBest.length];
+                    Arrays.fill(scalarBest, -1);
+                    Arrays.fill(vectorBest, -1);
+                    scalar.matchLinear(scalarContext, symbolId, scalarBest);
+                    vector.matchLinear(vectorContext, symbolId, vectorBest);
+                    assertArrayEquals(scalarBest, vectorBest);
+                }
+            }
+        }
+    }
+
+    private static AreaRule rule(String type, int length) {
+        AreaRule rule = new AreaRule();
+        rule.setType(type);
+        rule.setLength(length);
+        return rule;
+    }
+}
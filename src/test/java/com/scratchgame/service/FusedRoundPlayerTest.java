@@ -0,0 +1,44 @@
+package com.scratchgame.service;
+
+import com.scratchgame.compiled.CompiledGame;
+import com.scratchgame.random.RandomSource;
+import com.scratchgame.util.ConfigurationLoader;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FusedRoundPlayerTest {
+
+    @Test
+    public void testFusedRoundsMatchTheTwoPassRounds() throws Exception {
+        CompiledGame game = CompiledGame.compile(ConfigurationLoader.loadConfig("src/test/resources/test_config.json"));
+        MatrixGenerator generator = new MatrixGenerator(game, RandomSource.of(new SplittableRandom(7)));
+        GameEvaluator evaluator = new GameEvaluator(game);
+        EvaluationContext expected = evaluator.newContext();
+        Board twoPassBoard = new Board(game.getRows(), game.getColumns());
+
+        FusedRoundPlayer fused = new FusedRoundPlayer(game, RandomSource.of(new SplittableRandom(7)));
+        EvaluationContext actual = fused.newContext();
+        Board fusedBoard = new Board(game.getRows(), game.getColumns());
+
+        int bonuses = 0;
+        for (int round = 0; round < 5000; round++) {
+            generator.generate(twoPassBoard);
+            evaluator.evaluate(twoPassBoard, 100, expected);
+            fused.play(fusedBoard, 100, actual);
+
+            assertArrayEquals(twoPassBoard.cells(), fusedBoard.cells());
+            assertEquals(expected.getReward(), actual.getReward(), 0.0);
+            assertEquals(expected.getAppliedBonusSymbolId(), actual.getAppliedBonusSymbolId());
+            assertEquals(expected.getAppliedCount(), actual.getAppliedCount());
+            for (int i = 0; i < expected.getAppliedCount(); i++) {
+                assertEquals(expected.getAppliedSymbolId(i), actual.getAppliedSymbolId(i));
+                assertEquals(expected.getAppliedCombinationId(i), actual.getAppliedCombinationId(i));
+            }
+            bonuses += expected.getAppliedBonusSymbolId() >= 0 ? 1 : 0;
+        }
+        assertTrue(bonuses > 0);
+    }
+}
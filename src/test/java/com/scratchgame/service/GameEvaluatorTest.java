@@ -1,8 +1,13 @@
 package com.scratchgame.service;
 
+import com.scratchgame.compiled.SymbolTable;
 import com.scratchgame.model.Configuration;
+import com.scratchgame.model.WinningCombination;
 import com.scratchgame.util.ConfigurationLoader;
 import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class GameEvaluatorTest {
@@ -190,6 +195,15 @@ public class GameEvaluatorTest {
         });
     }
 
+    @Test
+    public void testMalformedPositionIsRejected() throws Exception {
+        // Evaluators built from a configuration compile its areas without CompiledGame's validation
+        Configuration config = ConfigurationLoader.loadConfig("src/test/resources/test_config.json");
+        config.getWin_combinations().get("same_symbols_horizontally").getCovered_areas().get(0).set(0, "0-0");
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> new GameEvaluator(config));
+        assertEquals("Win combination same_symbols_horizontally has an invalid position: 0-0", exception.getMessage());
+    }
+
     @Test
     public void testNoBonusAppliedWhenNoWin() throws Exception {
         // Load test configuration
@@ -267,4 +281,56 @@ public class GameEvaluatorTest {
         // Expected reward: 0, since bet amount is zero
         assertEquals(0, result.getReward(), 0.001);
     }
+
+    @Test
+    public void testEvaluateBoardMaterializesMatrix() throws Exception {
+        // Load test configuration
+        Configuration config = ConfigurationLoader.loadConfig("src/test/resources/test_config.json");
+
+        String[][] matrix = {
+                {"A", "A", "A"},
+                {"B", "C", "D"},
+                {"10x", "E", "F"}
+        };
+
+        GameEvaluator evaluator = new GameEvaluator(config);
+        Board board = Board.fromMatrix(matrix, SymbolTable.of(config));
+        GameResult result = evaluator.evaluate(board, 100);
+
+        // Same reward as the String[][] path, with symbol names restored only when asked for
+        assertEquals(10000, result.getReward(), 0.001);
+        assertEquals("10x", result.getApplied_bonus_symbol());
+        assertArrayEquals(matrix, result.getMatrix());
+    }
+
+    @Test
+    public void testSameSymbolsTierWithHighestMultiplierWins() throws Exception {
+        // Load test configuration
+        Configuration config = ConfigurationLoader.loadConfig("src/test/resources/test_config.json");
+
+        // A lower tier that pays more than every higher tier of its group
+        WinningCombination jackpot = new WinningCombination();
+        jackpot.setName("same_symbol_2_times_jackpot");
+        jackpot.setWhen("same_symbols");
+        jackpot.setCount(2);
+        jackpot.setGroup("same_symbols");
+        jackpot.setReward_multiplier(50.0);
+        config.getWin_combinations().put(jackpot.getName(), jackpot);
+
+        String[][] matrix = {
+                {"A", "B", "A"},
+                {"B", "A", "D"},
+                {"E", "A", "A"}
+        };
+
+        GameEvaluator evaluator = new GameEvaluator(config);
+        GameResult result = evaluator.evaluate(matrix, 1);
+
+        // A appears 5 times and B twice, both take the jackpot tier over same_symbol_5_times.
+        // A also covers the left to right diagonal: 5 * 50 * 5 + 3 * 50
+        assertEquals(1400, result.getReward(), 0.001);
+        assertEquals(List.of("same_symbol_2_times_jackpot", "same_symbols_diagonally_left_to_right"),
+                result.getApplied_winning_combinations().get("A"));
+        assertEquals(List.of("same_symbol_2_times_jackpot"), result.getApplied_winning_combinations().get("B"));
+    }
 }
@@ -0,0 +1,57 @@
+package com.scratchgame.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scratchgame.model.Configuration;
+import com.scratchgame.util.ConfigurationLoader;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameResultWriterTest {
+
+    @Test
+    public void testPrettyOutputMatchesObjectMapper() throws Exception {
+        // Load test configuration
+        Configuration config = ConfigurationLoader.loadConfig("src/test/resources/test_config.json");
+
+        String[][] matrix = {
+                {"A", "A", "A"},
+                {"B", "C", "D"},
+                {"10x", "E", "F"}
+        };
+        GameResult result = new GameEvaluator(config).evaluate(matrix, 100);
+
+        String expected = new ObjectMapper().writer().withDefaultPrettyPrinter().writeValueAsString(result);
+        assertEquals(expected, result.toJson());
+    }
+
+    @Test
+    public void testNdjsonWritesOneRecordPerLine() throws Exception {
+        // Load test configuration
+        Configuration config = ConfigurationLoader.loadConfig("src/test/resources/test_config.json");
+
+        BatchPlayer player = new BatchPlayer(config, new Random(3));
+        RoundBatch batch = player.playBatch(50, 10);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GameResultWriter writer = new GameResultWriter(out, GameResultWriter.Format.NDJSON)) {
+            for (int round = 0; round < batch.size(); round++) {
+                player.write(round, writer);
+            }
+        }
+
+        // Each line is the compact form of the same round materialized as a GameResult
+        ObjectMapper mapper = new ObjectMapper();
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(50, lines.length);
+        for (int round = 0; round < lines.length; round++) {
+            JsonNode expected = mapper.readTree(GameResultWriter.toJson(player.toResult(round), GameResultWriter.Format.COMPACT));
+            assertEquals(expected, mapper.readTree(lines[round]));
+        }
+    }
+}
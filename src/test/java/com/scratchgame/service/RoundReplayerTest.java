@@ -0,0 +1,42 @@
+package com.scratchgame.service;
+
+import com.scratchgame.model.Configuration;
+import com.scratchgame.util.ConfigurationLoader;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RoundReplayerTest {
+
+    @Test
+    public void testReplayReconstructsRoundsInAnyOrder() throws Exception {
+        // Load test configuration
+        Configuration config = ConfigurationLoader.loadConfig("src/test/resources/test_config.json");
+
+        RoundReplayer live = new RoundReplayer(config, 1234);
+        GameResult[] played = new GameResult[50];
+        for (int round = 0; round < played.length; round++) {
+            played[round] = live.replay(round, 100);
+        }
+
+        // A fresh replayer with the same master seed reconstructs every round from its id alone
+        RoundReplayer audit = new RoundReplayer(config, 1234);
+        for (int round = played.length - 1; round >= 0; round--) {
+            GameResult replayed = audit.replay(round, 100);
+            assertTrue(Arrays.deepEquals(played[round].getMatrix(), replayed.getMatrix()));
+            assertEquals(played[round].getReward(), replayed.getReward(), 0.001);
+            assertEquals(played[round].getApplied_winning_combinations(), replayed.getApplied_winning_combinations());
+            assertEquals(played[round].getApplied_bonus_symbol(), replayed.getApplied_bonus_symbol());
+        }
+
+        // Another master seed gives other boards
+        RoundReplayer other = new RoundReplayer(config, 4321);
+        long differing = IntStream.range(0, played.length)
+                .filter(round -> !Arrays.deepEquals(played[round].getMatrix(), other.replay(round, 100).getMatrix()))
+                .count();
+        assertTrue(differing > 0);
+    }
+}
@@ -0,0 +1,38 @@
+package com.scratchgame.simulation;
+
+import com.scratchgame.model.Configuration;
+import com.scratchgame.util.ConfigurationLoader;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExactRtpCalculatorTest {
+
+    @Test
+    public void testExactRtpAgreesWithSimulation() throws Exception {
+        // Load test configuration
+        Configuration config = ConfigurationLoader.loadConfig("src/test/resources/test_config.json");
+
+        ExactRtpReport exact = new ExactRtpCalculator(config).calculate(100);
+        SimulationReport simulated = new MonteCarloSimulator(config, 2).simulate(400_000, 100, 11);
+
+        // The simulated estimate should land within a few standard errors of the exact value
+        assertEquals(exact.getRtp(), simulated.getRtp(), 5 * simulated.getRtp_standard_error());
+        double hitFrequencyError = Math.sqrt(exact.getHit_frequency() * (1 - exact.getHit_frequency()) / simulated.getRounds());
+        assertEquals(exact.getHit_frequency(), simulated.getHit_frequency(), 5 * hitFrequencyError);
+    }
+
+    @Test
+    public void testRtpAddsUpFromContributions() throws Exception {
+        // Load test configuration
+        Configuration config = ConfigurationLoader.loadConfig("src/test/resources/test_config.json");
+
+        ExactRtpReport report = new ExactRtpCalculator(config).calculate(10);
+
+        double baseRtp = report.getSymbols().values().stream().mapToDouble(Double::doubleValue).sum();
+        double bonusRtp = report.getBonus_symbols().values().stream().mapToDouble(Double::doubleValue).sum();
+        assertEquals(report.getBase_rtp(), baseRtp, 1e-12);
+        assertEquals(report.getRtp(), baseRtp + bonusRtp, 1e-12);
+        assertEquals(0.0, report.getBonus_symbols().get("MISS"), 0.0);
+    }
+}
@@ -0,0 +1,41 @@
+package com.scratchgame.simulation;
+
+import com.scratchgame.model.Configuration;
+import com.scratchgame.util.ConfigurationLoader;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MonteCarloSimulatorTest {
+
+    @Test
+    public void testSameSeedReproducesReportWithAnyThreadCount() throws Exception {
+        // Load test configuration
+        Configuration config = ConfigurationLoader.loadConfig("src/test/resources/test_config.json");
+
+        SimulationReport singleThreaded = new MonteCarloSimulator(config, 1).simulate(200_000, 10, 42);
+        SimulationReport multiThreaded = new MonteCarloSimulator(config, 4).simulate(200_000, 10, 42);
+
+        assertEquals(200_000, multiThreaded.getRounds());
+        assertEquals(singleThreaded.getRtp(), multiThreaded.getRtp(), 1e-9);
+        assertEquals(singleThreaded.getHit_frequency(), multiThreaded.getHit_frequency(), 0.0);
+        assertEquals(singleThreaded.getMax_win(), multiThreaded.getMax_win(), 0.0);
+    }
+
+    @Test
+    public void testReportIsConsistent() throws Exception {
+        // Load test configuration
+        Configuration config = ConfigurationLoader.loadConfig("src/test/resources/test_config.json");
+
+        SimulationReport report = new MonteCarloSimulator(config, 2).simulate(100_000, 1, 7);
+
+        // Every winning round uses the 3-of-a-kind tier at least, and bonuses only apply to winning rounds
+        assertTrue(report.getRtp() > 0);
+        assertTrue(report.getHit_frequency() > 0 && report.getHit_frequency() <= 1);
+        assertTrue(report.getVariance() > 0);
+        assertTrue(report.getMax_win() >= report.getRtp());
+        long bonusTriggers = report.getBonus_symbols().values().stream().mapToLong(SimulationReport.Contribution::getHits).sum();
+        assertTrue(bonusTriggers <= Math.round(report.getHit_frequency() * report.getRounds()));
+        assertTrue(report.getWin_combinations().get("same_symbol_3_times").getHits() > 0);
+    }
+}
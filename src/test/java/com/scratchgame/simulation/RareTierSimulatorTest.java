@@ -0,0 +1,73 @@
+package com.scratchgame.simulation;
+
+import com.scratchgame.compiled.CellTables;
+import com.scratchgame.compiled.CompiledGame;
+import com.scratchgame.compiled.SymbolTable;
+import com.scratchgame.model.Configuration;
+import com.scratchgame.util.ConfigurationLoader;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RareTierSimulatorTest {
+
+    @Test
+    public void testFullBoardTierMatchesItsExactContribution() throws Exception {
+        // Load test configuration
+        Configuration config = ConfigurationLoader.loadConfig("src/test/resources/test_config.json");
+        CompiledGame game = CompiledGame.compile(config);
+        RareTierReport report = new RareTierSimulator(config, 2).simulate(100_000, 100, 21);
+
+        // A board filled with one symbol wins every tier of every group, which a few lines compute exactly.
+        // It happens about once in ten million boards.
+        SymbolTable symbols = game.getSymbols();
+        CellTables cellTables = game.getCellTables();
+        double fullBoardPayout = 20 * 2 * 2 * 5 * 5;
+        double exactProbability = 0.0;
+        double exactContribution = 0.0;
+        for (int symbolId = 0; symbolId < symbols.size(); symbolId++) {
+            if (symbols.isStandard(symbolId)) {
+                double probability = 1.0;
+                for (int cell = 0; cell < game.getCells(); cell++) {
+                    probability *= cellTables.probability(cell, symbolId);
+                }
+                exactProbability += probability;
+                exactContribution += probability * symbols.rewardMultiplier(symbolId) * fullBoardPayout;
+            }
+        }
+        RareTierReport.Contribution fullBoard = report.getWin_combinations().get("same_symbol_9_times");
+        assertTrue(exactProbability < 1e-6);
+        assertEquals(exactContribution, fullBoard.getRtp_contribution(), 4 * fullBoard.getStandard_error());
+        assertTrue(fullBoard.getStandard_error() < 0.05 * exactContribution);
+        assertTrue(fullBoard.getCi_low() < fullBoard.getCi_high());
+        assertEquals(exactProbability, fullBoard.getHit_frequency(), 0.1 * exactProbability);
+    }
+
+    @Test
+    public void testSymbolContributionsMatchExactCalculation() throws Exception {
+        // Load test configuration
+        Configuration config = ConfigurationLoader.loadConfig("src/test/resources/test_config.json");
+        RareTierReport report = new RareTierSimulator(config, 2).simulate(100_000, 100, 8);
+        ExactRtpReport exact = new ExactRtpCalculator(config).calculate(100);
+
+        assertEquals(exact.getBase_rtp(), report.getBase_rtp(), 4 * report.getBase_rtp_standard_error());
+        for (Map.Entry<String, Double> symbol : exact.getSymbols().entrySet()) {
+            RareTierReport.Contribution estimate = report.getSymbols().get(symbol.getKey());
+            assertEquals(symbol.getValue(), estimate.getRtp_contribution(), 4 * estimate.getStandard_error(), symbol.getKey());
+        }
+    }
+
+    @Test
+    public void testSameSeedReproducesReportWithAnyThreadCount() throws Exception {
+        // Load test configuration
+        Configuration config = ConfigurationLoader.loadConfig("src/test/resources/test_config.json");
+
+        RareTierReport single = new RareTierSimulator(config, 1).simulate(70_000, 10, 3);
+        RareTierReport multi = new RareTierSimulator(config, 3).simulate(70_000, 10, 3);
+        assertEquals(single.getBase_rtp(), multi.getBase_rtp(), 0.0);
+        assertEquals(single.getWin_combinations().get("same_symbol_8_times").getRtp_contribution(),
+                multi.getWin_combinations().get("same_symbol_8_times").getRtp_contribution(), 0.0);
+    }
+}
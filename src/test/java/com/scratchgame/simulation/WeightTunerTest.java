@@ -0,0 +1,59 @@
+package com.scratchgame.simulation;
+
+import com.scratchgame.model.Configuration;
+import com.scratchgame.util.ConfigurationLoader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WeightTunerTest {
+
+    @Test
+    public void testTunedConfigurationLandsInTargetAndReloads(@TempDir Path directory) throws Exception {
+        // Load test configuration
+        Configuration config = ConfigurationLoader.loadConfig("src/test/resources/test_config.json");
+
+        // The test configuration pays far more than it takes, the volatility band forces simulated estimates
+        TuningTarget target = new TuningTarget();
+        target.setRtp_min(0.9);
+        target.setRtp_max(1.0);
+        target.setVolatility_min(2.0);
+        target.setVolatility_max(8.0);
+        TuningReport report = new WeightTuner(config, 2, 20_000).tune(target, 100, 100, 11);
+
+        assertTrue(report.isWithin_target());
+        assertEquals("simulation", report.getEstimator());
+        assertTrue(report.getCandidates_evaluated() > 1);
+
+        // The written file loads like any configuration and an independent simulation agrees with the report
+        Path tuned = directory.resolve("tuned_config.json");
+        ConfigurationLoader.writeConfig(report.getConfiguration(), tuned.toString());
+        Configuration reloaded = ConfigurationLoader.loadConfig(tuned.toString());
+        SimulationReport simulation = new MonteCarloSimulator(reloaded, 2).simulate(400_000, 100, 3);
+        assertEquals(report.getRtp(), simulation.getRtp(), 0.05);
+        // Stacked multipliers give the payout a heavy tail, so standard deviations of a few hundred thousand
+        // rounds spread by about a quarter
+        assertEquals(report.getVolatility(), simulation.getStandard_deviation(), 0.4 * report.getVolatility());
+    }
+
+    @Test
+    public void testSameSeedFindsSameWeightsWithAnyThreadCount() throws Exception {
+        // Load test configuration
+        Configuration config = ConfigurationLoader.loadConfig("src/test/resources/test_config.json");
+        TuningTarget target = new TuningTarget();
+        target.setRtp_min(0.9);
+        target.setRtp_max(1.0);
+        target.setVolatility_max(6.0);
+
+        TuningReport single = new WeightTuner(config, 1, 5_000).tune(target, 100, 10, 5);
+        TuningReport parallel = new WeightTuner(config, 3, 5_000).tune(target, 100, 10, 5);
+
+        assertEquals(single.getGenerations(), parallel.getGenerations());
+        assertEquals(single.getRtp(), parallel.getRtp(), 0.0);
+        assertEquals(single.getConfiguration().getProbabilities().getBonus_symbols().getSymbols(),
+                parallel.getConfiguration().getProbabilities().getBonus_symbols().getSymbols());
+    }
+}
@@ -0,0 +1,78 @@
+package com.scratchgame.simulation;
+
+import com.scratchgame.compiled.CompiledGame;
+import com.scratchgame.model.Configuration;
+import com.scratchgame.util.ConfigurationLoader;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WhatIfEstimatorTest {
+
+    @Test
+    public void testChangedMultipliersAreRescoredOnTheSameBoards() throws Exception {
+        // Load test configuration
+        Configuration config = ConfigurationLoader.loadConfig("src/test/resources/test_config.json");
+        WhatIfEstimator estimator = new WhatIfEstimator(CompiledGame.compile(config), 50_000, 10, 9);
+
+        // The 3 times tier now outranks the 4 to 6 times tiers of its group, so the chosen tier changes too
+        Configuration modified = ConfigurationLoader.loadConfig("src/test/resources/test_config.json");
+        modified.getWin_combinations().get("same_symbol_3_times").setReward_multiplier(4.0);
+        modified.getSymbols().get("A").setReward_multiplier(8.0);
+        modified.getSymbols().get("+500").setExtra(50);
+        WhatIfReport report = estimator.estimate(modified);
+        // Estimated at the bet of the sample, which the absolute extra_bonus was scored against
+        assertEquals(10, report.getBetting_amount(), 0.0);
+
+        // A single task simulation with the same seed plays exactly the sampled boards
+        SimulationReport simulation = new MonteCarloSimulator(modified, 1).simulate(50_000, 10, 9);
+        assertEquals(simulation.getRtp(), report.getRtp(), 1e-9);
+        assertEquals(simulation.getHit_frequency(), report.getHit_frequency(), 1e-12);
+        assertEquals(50_000, report.getEffective_sample_size(), 1e-6);
+
+        WhatIfReport unchanged = estimator.estimate(config);
+        assertEquals(unchanged.getBase_rtp(), unchanged.getRtp(), 0.0);
+    }
+
+    @Test
+    public void testChangedWeightsAreReweighted() throws Exception {
+        // Load test configuration
+        Configuration config = ConfigurationLoader.loadConfig("src/test/resources/test_config.json");
+        WhatIfEstimator estimator = new WhatIfEstimator(CompiledGame.compile(config), 400_000, 100, 4);
+
+        Configuration modified = ConfigurationLoader.loadConfig("src/test/resources/test_config.json");
+        modified.getProbabilities().getStandard_symbols().forEach(p -> p.getSymbols().put("A", 2));
+        modified.getProbabilities().getBonus_symbols().getSymbols().put("MISS", 9);
+        modified.getWin_combinations().get("same_symbols_horizontally").setReward_multiplier(3.0);
+        WhatIfReport report = estimator.estimate(modified);
+
+        ExactRtpReport exact = new ExactRtpCalculator(modified).calculate(100);
+        assertEquals(exact.getRtp(), report.getRtp(), 4 * report.getRtp_standard_error());
+        assertEquals(exact.getHit_frequency(), report.getHit_frequency(), 0.01);
+        assertTrue(report.getEffective_sample_size() < 400_000);
+        assertTrue(report.getEffective_sample_size() > 100_000);
+    }
+
+    @Test
+    public void testRejectsStructuralChanges() throws Exception {
+        // Load test configuration
+        Configuration config = ConfigurationLoader.loadConfig("src/test/resources/test_config.json");
+        WhatIfEstimator estimator = new WhatIfEstimator(CompiledGame.compile(config), 1000, 10, 1);
+
+        Configuration modified = ConfigurationLoader.loadConfig("src/test/resources/test_config.json");
+        modified.getWin_combinations().get("same_symbol_3_times").setCount(2);
+        assertThrows(IllegalArgumentException.class, () -> estimator.estimate(modified));
+    }
+
+    @Test
+    public void testRejectsSamplesTooLargeForTheBoard() throws Exception {
+        Configuration config = ConfigurationLoader.loadConfig("src/test/resources/test_config.json");
+        config.setRows(10);
+        config.setColumns(10);
+        CompiledGame game = CompiledGame.compile(config);
+        // 64 cells per round fit the old cap, 100 overflow it
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> new WhatIfEstimator(game, Integer.MAX_VALUE / 64, 10, 1));
+        assertTrue(exception.getMessage().contains("too large"));
+    }
+}
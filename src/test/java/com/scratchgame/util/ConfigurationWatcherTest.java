@@ -0,0 +1,42 @@
+package com.scratchgame.util;
+
+import com.scratchgame.compiled.CompiledGame;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConfigurationWatcherTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testChangedFileIsRecompiled() throws Exception {
+        Path file = directory.resolve("config.json");
+        String original = Files.readString(Path.of("src/test/resources/test_config.json"));
+        Files.writeString(file, original);
+
+        BlockingQueue<CompiledGame> reloads = new LinkedBlockingQueue<>();
+        try (ConfigurationWatcher watcher = new ConfigurationWatcher(file, reloads::add)) {
+            watcher.start();
+
+            // A broken file is skipped, the next valid one is compiled and handed over
+            Files.writeString(file, "{ \"columns\": ");
+            Files.writeString(file, original.replaceFirst("\"columns\": 3", "\"columns\": 4"));
+
+            CompiledGame game = reloads.poll(20, TimeUnit.SECONDS);
+            while (game != null && game.getColumns() != 4) {
+                game = reloads.poll(20, TimeUnit.SECONDS);
+            }
+            assertNotNull(game);
+            assertEquals(4, game.getColumns());
+        }
+    }
+}